@@ -0,0 +1,29 @@
+package com.talk4date.android.lifecycle.benchmark;
+
+import com.talk4date.android.lifecycle.BaseLifecycle;
+import com.talk4date.android.lifecycle.DispatchScheduler;
+
+/**
+ * Lifecycle whose state is controlled by the benchmarks.
+ */
+public class BenchmarkLifecycle extends BaseLifecycle {
+
+	public BenchmarkLifecycle(DispatchScheduler scheduler) {
+		super(scheduler);
+	}
+
+	@Override
+	public void setActive(boolean active) {
+		super.setActive(active);
+	}
+
+	@Override
+	public void setParent(BaseLifecycle parent) {
+		super.setParent(parent);
+	}
+
+	@Override
+	public void destroy() {
+		super.destroy();
+	}
+}
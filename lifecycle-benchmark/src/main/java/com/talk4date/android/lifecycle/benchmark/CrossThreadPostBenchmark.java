@@ -0,0 +1,147 @@
+package com.talk4date.android.lifecycle.benchmark;
+
+import com.talk4date.android.lifecycle.EventListener;
+import com.talk4date.android.lifecycle.EventReceiver;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end latency of a burst of events posted from a worker thread until the last event reached the listener
+ * on the dispatch thread.
+ *
+ * {@link #coalesced} uses the regular {@link EventReceiver#postEvent(Object)} path.
+ * {@link #taskPerEvent} posts one scheduler task per event, which is how background events were delivered before
+ * they got coalesced. The aux counters report the posted scheduler tasks next to the delivered events.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CrossThreadPostBenchmark {
+
+	@Param({"1", "100", "5000"})
+	public int burst;
+
+	private DispatchThreadScheduler scheduler;
+
+	private EventReceiver<Integer> receiver;
+
+	private volatile long delivered;
+
+	private long posted;
+
+	private Integer event = 42;
+
+	@Setup
+	public void setUp() throws InterruptedException {
+		scheduler = new DispatchThreadScheduler();
+		final BenchmarkLifecycle lifecycle = new BenchmarkLifecycle(scheduler);
+		scheduler.post(new Runnable() {
+			@Override
+			public void run() {
+				lifecycle.setActive(true);
+			}
+		});
+		awaitIdle();
+
+		receiver = lifecycle.registerListener("cross-thread", false, new EventListener<Integer>() {
+			@Override
+			public void onEvent(Integer event) {
+				// only written by the dispatch thread
+				delivered = delivered + 1;
+			}
+		});
+	}
+
+	@TearDown
+	public void tearDown() {
+		scheduler.shutdown();
+	}
+
+	@Benchmark
+	public void coalesced(Counters counters) {
+		long tasksBefore = scheduler.getPostedTasks();
+		for (int i = 0; i < burst; i++) {
+			receiver.postEvent(event);
+		}
+		awaitDelivered();
+		counters.count(burst, scheduler.getPostedTasks() - tasksBefore);
+	}
+
+	@Benchmark
+	public void taskPerEvent(Counters counters) {
+		long tasksBefore = scheduler.getPostedTasks();
+		for (int i = 0; i < burst; i++) {
+			scheduler.post(new Runnable() {
+				@Override
+				public void run() {
+					receiver.postEvent(event);
+				}
+			});
+		}
+		awaitDelivered();
+		counters.count(burst, scheduler.getPostedTasks() - tasksBefore);
+	}
+
+	private void awaitDelivered() {
+		posted += burst;
+		while (delivered < posted) {
+			Thread.yield();
+		}
+	}
+
+	/**
+	 * Waits until the dispatch thread ran all previously posted tasks.
+	 */
+	private void awaitIdle() throws InterruptedException {
+		final CountDownLatch idle = new CountDownLatch(1);
+		scheduler.post(new Runnable() {
+			@Override
+			public void run() {
+				idle.countDown();
+			}
+		});
+		idle.await();
+	}
+
+	/**
+	 * Events delivered and scheduler tasks posted during the measurement.
+	 */
+	@AuxCounters(AuxCounters.Type.EVENTS)
+	@State(Scope.Thread)
+	public static class Counters {
+
+		public long events;
+
+		public long schedulerTasks;
+
+		@Setup(Level.Iteration)
+		public void reset() {
+			events = 0;
+			schedulerTasks = 0;
+		}
+
+		void count(long events, long schedulerTasks) {
+			this.events += events;
+			this.schedulerTasks += schedulerTasks;
+		}
+	}
+}
@@ -0,0 +1,58 @@
+package com.talk4date.android.lifecycle.benchmark;
+
+import com.talk4date.android.lifecycle.DispatchScheduler;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Dispatch scheduler backed by a single thread, standing in for the Android main looper.
+ * Counts the posted tasks, so benchmarks can report how many looper messages an event costs.
+ */
+public class DispatchThreadScheduler implements DispatchScheduler {
+
+	private volatile Thread dispatchThread;
+
+	private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+		@Override
+		public Thread newThread(Runnable runnable) {
+			Thread thread = new Thread(runnable, "dispatch-thread");
+			thread.setDaemon(true);
+			dispatchThread = thread;
+			return thread;
+		}
+	});
+
+	private final AtomicLong postedTasks = new AtomicLong();
+
+	@Override
+	public boolean isDispatchThread() {
+		return Thread.currentThread() == dispatchThread;
+	}
+
+	@Override
+	public void post(Runnable task) {
+		postedTasks.incrementAndGet();
+		executor.execute(task);
+	}
+
+	@Override
+	public void postDelayed(Runnable task, long delayMillis) {
+		postedTasks.incrementAndGet();
+		executor.schedule(task, delayMillis, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * The number of tasks posted since the scheduler was created.
+	 */
+	public long getPostedTasks() {
+		return postedTasks.get();
+	}
+
+	public void shutdown() {
+		executor.shutdownNow();
+	}
+}
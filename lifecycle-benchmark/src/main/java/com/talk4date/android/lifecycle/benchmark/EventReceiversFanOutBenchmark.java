@@ -0,0 +1,60 @@
+package com.talk4date.android.lifecycle.benchmark;
+
+import com.talk4date.android.lifecycle.EventListener;
+import com.talk4date.android.lifecycle.EventReceivers;
+import com.talk4date.android.lifecycle.ImmediateScheduler;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Throughput of {@link EventReceivers#postEvent(Object)} fanning out to {@link #receivers} active receivers.
+ */
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Thread)
+public class EventReceiversFanOutBenchmark {
+
+	@Param({"1", "10", "100", "1000", "10000"})
+	public int receivers;
+
+	private EventReceivers<Integer> eventReceivers;
+
+	private Integer event = 42;
+
+	private long received;
+
+	@Setup
+	public void setUp() {
+		EventListener<Integer> listener = new EventListener<Integer>() {
+			@Override
+			public void onEvent(Integer event) {
+				received += event;
+			}
+		};
+
+		BenchmarkLifecycle lifecycle = new BenchmarkLifecycle(ImmediateScheduler.get());
+		lifecycle.setActive(true);
+
+		eventReceivers = new EventReceivers<>();
+		for (int i = 0; i < receivers; i++) {
+			eventReceivers.registerEventReceiver(lifecycle.registerListener("receiver-" + i, false, listener));
+		}
+	}
+
+	@Benchmark
+	public long postEvent() {
+		eventReceivers.postEvent(event);
+		return received;
+	}
+}
@@ -0,0 +1,73 @@
+package com.talk4date.android.lifecycle.benchmark;
+
+import com.talk4date.android.lifecycle.EventListener;
+import com.talk4date.android.lifecycle.ImmediateScheduler;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of pausing and resuming an activity like root lifecycle and {@link #children} fragment like
+ * lifecycles, each with one registered listener.
+ *
+ * With {@link #linked} the fragment lifecycles are children of the root, so their own state changes
+ * are no-ops while the root is paused. Otherwise all lifecycles are independent.
+ */
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Thread)
+public class HierarchyBenchmark {
+
+	@Param({"1", "10", "100"})
+	public int children;
+
+	@Param({"true", "false"})
+	public boolean linked;
+
+	private BenchmarkLifecycle root;
+
+	private BenchmarkLifecycle[] childLifecycles;
+
+	@Setup
+	public void setUp() {
+		EventListener<Object> listener = new EventListener<Object>() {
+			@Override
+			public void onEvent(Object event) {}
+		};
+
+		root = new BenchmarkLifecycle(ImmediateScheduler.get());
+		root.setActive(true);
+		childLifecycles = new BenchmarkLifecycle[children];
+		for (int i = 0; i < children; i++) {
+			childLifecycles[i] = new BenchmarkLifecycle(ImmediateScheduler.get());
+			if (linked) {
+				childLifecycles[i].setParent(root);
+			}
+			childLifecycles[i].setActive(true);
+			childLifecycles[i].registerListener("listener", true, listener);
+		}
+	}
+
+	@Benchmark
+	public BenchmarkLifecycle pauseResume() {
+		root.setActive(false);
+		for (BenchmarkLifecycle child : childLifecycles) {
+			child.setActive(false);
+		}
+		root.setActive(true);
+		for (BenchmarkLifecycle child : childLifecycles) {
+			child.setActive(true);
+		}
+		return root;
+	}
+}
@@ -0,0 +1,51 @@
+package com.talk4date.android.lifecycle.benchmark;
+
+import com.talk4date.android.lifecycle.EventListener;
+import com.talk4date.android.lifecycle.EventReceiver;
+import com.talk4date.android.lifecycle.ImmediateScheduler;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Throughput of {@link EventReceiver#postEvent(Object)} on the dispatch thread,
+ * with the event dispatched directly to the listener.
+ */
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Thread)
+public class PostEventBenchmark {
+
+	private EventReceiver<Integer> receiver;
+
+	private Integer event = 42;
+
+	private long received;
+
+	@Setup
+	public void setUp() {
+		BenchmarkLifecycle lifecycle = new BenchmarkLifecycle(ImmediateScheduler.get());
+		lifecycle.setActive(true);
+		receiver = lifecycle.registerListener("post", false, new EventListener<Integer>() {
+			@Override
+			public void onEvent(Integer event) {
+				received += event;
+			}
+		});
+	}
+
+	@Benchmark
+	public long postOnDispatchThread() {
+		receiver.postEvent(event);
+		return received;
+	}
+}
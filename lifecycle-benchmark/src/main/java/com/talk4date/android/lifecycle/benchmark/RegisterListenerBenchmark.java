@@ -0,0 +1,106 @@
+package com.talk4date.android.lifecycle.benchmark;
+
+import com.talk4date.android.lifecycle.EventListener;
+import com.talk4date.android.lifecycle.ImmediateScheduler;
+import com.talk4date.android.lifecycle.ListenerKey;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of registering {@link #tags} listeners.
+ *
+ * {@link #registerNew} registers all tags in a new lifecycle, {@link #reregister} updates the listeners
+ * of already registered tags, like a recreated fragment does with its session lifecycle.
+ * The key variants do the same with typed {@link ListenerKey}s instead of String tags.
+ */
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Thread)
+public class RegisterListenerBenchmark {
+
+	@Param({"1", "10", "100", "1000"})
+	public int tags;
+
+	private String[] tagNames;
+
+	private ListenerKey<Object>[] keys;
+
+	private BenchmarkLifecycle registeredLifecycle;
+
+	private BenchmarkLifecycle keyRegisteredLifecycle;
+
+	private EventListener<Object> listener = new EventListener<Object>() {
+		@Override
+		public void onEvent(Object event) {}
+	};
+
+	@Setup
+	public void setUp() {
+		tagNames = new String[tags];
+		keys = newKeys(tags);
+		for (int i = 0; i < tags; i++) {
+			tagNames[i] = "tag-" + i;
+			keys[i] = ListenerKey.of("tag-" + i, Object.class);
+		}
+
+		registeredLifecycle = new BenchmarkLifecycle(ImmediateScheduler.get());
+		for (String tag : tagNames) {
+			registeredLifecycle.registerListener(tag, true, listener);
+		}
+
+		keyRegisteredLifecycle = new BenchmarkLifecycle(ImmediateScheduler.get());
+		for (ListenerKey<Object> key : keys) {
+			keyRegisteredLifecycle.registerListener(key, true, listener);
+		}
+	}
+
+	@Benchmark
+	public BenchmarkLifecycle registerNew() {
+		BenchmarkLifecycle lifecycle = new BenchmarkLifecycle(ImmediateScheduler.get());
+		for (String tag : tagNames) {
+			lifecycle.registerListener(tag, true, listener);
+		}
+		return lifecycle;
+	}
+
+	@Benchmark
+	public BenchmarkLifecycle reregister() {
+		for (String tag : tagNames) {
+			registeredLifecycle.registerListener(tag, true, listener);
+		}
+		return registeredLifecycle;
+	}
+
+	@Benchmark
+	public BenchmarkLifecycle registerNewKeys() {
+		BenchmarkLifecycle lifecycle = new BenchmarkLifecycle(ImmediateScheduler.get());
+		for (ListenerKey<Object> key : keys) {
+			lifecycle.registerListener(key, true, listener);
+		}
+		return lifecycle;
+	}
+
+	@Benchmark
+	public BenchmarkLifecycle reregisterKeys() {
+		for (ListenerKey<Object> key : keys) {
+			keyRegisteredLifecycle.registerListener(key, true, listener);
+		}
+		return keyRegisteredLifecycle;
+	}
+
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	private static ListenerKey<Object>[] newKeys(int length) {
+		return new ListenerKey[length];
+	}
+}
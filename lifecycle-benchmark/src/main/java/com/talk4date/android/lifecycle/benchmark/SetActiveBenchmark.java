@@ -0,0 +1,52 @@
+package com.talk4date.android.lifecycle.benchmark;
+
+import com.talk4date.android.lifecycle.EventListener;
+import com.talk4date.android.lifecycle.ImmediateScheduler;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of a pause / resume cycle of a lifecycle with {@link #dispatchers} registered listeners.
+ * Every active state change is fanned out to all dispatchers of the lifecycle.
+ */
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Thread)
+public class SetActiveBenchmark {
+
+	@Param({"1", "10", "100"})
+	public int dispatchers;
+
+	private BenchmarkLifecycle lifecycle;
+
+	@Setup
+	public void setUp() {
+		EventListener<Object> listener = new EventListener<Object>() {
+			@Override
+			public void onEvent(Object event) {}
+		};
+
+		lifecycle = new BenchmarkLifecycle(ImmediateScheduler.get());
+		for (int i = 0; i < dispatchers; i++) {
+			lifecycle.registerListener("dispatcher-" + i, true, listener);
+		}
+	}
+
+	@Benchmark
+	public BenchmarkLifecycle pauseResume() {
+		lifecycle.setActive(false);
+		lifecycle.setActive(true);
+		return lifecycle;
+	}
+}
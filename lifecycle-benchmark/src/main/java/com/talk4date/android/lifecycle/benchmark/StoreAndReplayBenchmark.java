@@ -0,0 +1,111 @@
+package com.talk4date.android.lifecycle.benchmark;
+
+import com.talk4date.android.lifecycle.EventKeyExtractor;
+import com.talk4date.android.lifecycle.EventListener;
+import com.talk4date.android.lifecycle.EventReceiver;
+import com.talk4date.android.lifecycle.ImmediateScheduler;
+import com.talk4date.android.lifecycle.ListenerOptions;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares dispatching events directly to an active lifecycle with storing them while the lifecycle is inactive
+ * and replaying them when it becomes active again.
+ * Each operation posts {@link #events} events.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Thread)
+public class StoreAndReplayBenchmark {
+
+	/**
+	 * Number of distinct keys used by the conflating store.
+	 */
+	private static final int KEYS = 16;
+
+	@Param({"10", "1000", "100000"})
+	public int events;
+
+	private Integer[] values;
+
+	private BenchmarkLifecycle lifecycle;
+
+	private EventReceiver<Integer> directReceiver;
+
+	private EventReceiver<Integer> storingReceiver;
+
+	private EventReceiver<Integer> conflatingReceiver;
+
+	private long received;
+
+	@Setup
+	public void setUp() {
+		values = new Integer[events];
+		for (int i = 0; i < events; i++) {
+			values[i] = i;
+		}
+
+		EventListener<Integer> listener = new EventListener<Integer>() {
+			@Override
+			public void onEvent(Integer event) {
+				received += event;
+			}
+		};
+
+		BenchmarkLifecycle activeLifecycle = new BenchmarkLifecycle(ImmediateScheduler.get());
+		activeLifecycle.setActive(true);
+		directReceiver = activeLifecycle.registerListener("direct", true, listener);
+
+		lifecycle = new BenchmarkLifecycle(ImmediateScheduler.get());
+		storingReceiver = lifecycle.registerListener("store", true, listener);
+		conflatingReceiver = lifecycle.registerListener("conflate", ListenerOptions.storeWhileInactive()
+				.conflatedBy(new EventKeyExtractor<Integer>() {
+					@Override
+					public Object keyOf(Integer event) {
+						return event % KEYS;
+					}
+				}), listener);
+	}
+
+	@Benchmark
+	public long direct() {
+		for (Integer value : values) {
+			directReceiver.postEvent(value);
+		}
+		return received;
+	}
+
+	@Benchmark
+	public long storeAndReplay() {
+		return postInactiveAndReplay(storingReceiver);
+	}
+
+	@Benchmark
+	public long storeAndReplayConflated() {
+		return postInactiveAndReplay(conflatingReceiver);
+	}
+
+	private long postInactiveAndReplay(EventReceiver<Integer> receiver) {
+		lifecycle.setActive(false);
+		for (Integer value : values) {
+			receiver.postEvent(value);
+		}
+		lifecycle.setActive(true);
+		return received;
+	}
+}
@@ -0,0 +1,417 @@
+package com.talk4date.android.lifecycle;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Abstract base class for implementing lifecycles.
+ * Implements event dispatching and listener registration.
+ *
+ * Lifecycles can form a tree. A child lifecycle is never in a higher state than its parent,
+ * so it is only active while its parent is active, and it is destroyed together with its parent.
+ */
+public abstract class BaseLifecycle implements Lifecycle {
+
+	/**
+	 * Scheduler on whose thread events are dispatched.
+	 */
+	private final DispatchScheduler scheduler;
+
+	/**
+	 * Listeners that get notified when the active state changes.
+	 * Copy on write, so dispatchers can register or unregister while being notified.
+	 */
+	private final ListenerRegistry<ActiveChangeListener> activeChangeListeners =
+			new ListenerRegistry<>(new ActiveChangeListener[0]);
+
+	/**
+	 * Listeners that get notified when the state changes.
+	 */
+	private final ListenerRegistry<StateChangeListener> stateChangeListeners =
+			new ListenerRegistry<>(new StateChangeListener[0]);
+
+	/**
+	 * Listeners that get notified when the the lifecycle is destroyed.
+	 */
+	private final ListenerRegistry<OnDestroyListener> onDestroyListeners =
+			new ListenerRegistry<>(new OnDestroyListener[0]);
+
+	/**
+	 * All LifecycleEventDispatchers by the name of their key, String tags are untyped keys.
+	 */
+	private final Map<String, Registration> eventDispatchers = new HashMap<>();
+
+	/**
+	 * Requests in flight in this lifecycle, created on first access.
+	 */
+	private volatile InFlightRequests inFlightRequests;
+
+	/**
+	 * The parent lifecycle, null for root lifecycles.
+	 */
+	private BaseLifecycle parent;
+
+	/**
+	 * Child lifecycles, updated when the state changes and destroyed together with this lifecycle.
+	 */
+	private final ListenerRegistry<BaseLifecycle> children = new ListenerRegistry<>(new BaseLifecycle[0]);
+
+	/**
+	 * The state set by {@link #setState(LifecycleState)}.
+	 */
+	private LifecycleState selfState = LifecycleState.CREATED;
+
+	/**
+	 * The current state, the lowest of the own state and the states of all parents.
+	 */
+	private LifecycleState state = LifecycleState.CREATED;
+
+	/**
+	 * If the lifecycle is destroyed.
+	 */
+	private boolean destroyed = false;
+
+	/**
+	 * @param scheduler The scheduler on whose thread events of this lifecycle are dispatched.
+	 */
+	protected BaseLifecycle(DispatchScheduler scheduler) {
+		this.scheduler = scheduler;
+	}
+
+	/**
+	 * Set the lifecycle active / inactive.
+	 * Active means {@link LifecycleState#RESUMED}, inactive at most {@link LifecycleState#STARTED}.
+	 */
+	protected void setActive(boolean active) {
+		if (active) {
+			setState(LifecycleState.RESUMED);
+		} else if (selfState == LifecycleState.RESUMED) {
+			setState(LifecycleState.STARTED);
+		}
+	}
+
+	/**
+	 * Set the state of the lifecycle.
+	 * The lifecycle never gets into a higher state than its parent.
+	 */
+	protected void setState(LifecycleState state) {
+		if (state == null) {
+			throw new IllegalArgumentException("State must not be null");
+		}
+		this.selfState = state;
+		updateState();
+	}
+
+	/**
+	 * Sets the parent of this lifecycle, or null to make it a root lifecycle.
+	 * If the parent is already destroyed this lifecycle is destroyed too.
+	 */
+	protected void setParent(BaseLifecycle parent) {
+		if (this.parent == parent) {
+			return;
+		}
+		if (this.parent != null) {
+			this.parent.children.remove(this);
+		}
+
+		this.parent = parent;
+		if (parent != null) {
+			if (parent.isDestroyed()) {
+				destroy();
+				return;
+			}
+			parent.children.add(this);
+		}
+		updateState();
+	}
+
+	/**
+	 * The parent lifecycle, null for root lifecycles.
+	 */
+	protected BaseLifecycle getParent() {
+		return parent;
+	}
+
+	/**
+	 * Recalculates the state and notifies listeners and children if it changed.
+	 * Children are only visited when the state changes, so unaffected subtrees are never touched.
+	 */
+	private void updateState() {
+		LifecycleState state = selfState;
+		if (parent != null && parent.state.compareTo(state) < 0) {
+			state = parent.state;
+		}
+
+		if (this.state != state) {
+			boolean wasActive = isActive();
+			this.state = state;
+			for (StateChangeListener listener : stateChangeListeners.snapshot()) {
+				listener.onStateChange(state);
+			}
+			boolean active = isActive();
+			if (wasActive != active) {
+				for (ActiveChangeListener listener : activeChangeListeners.snapshot()) {
+					listener.onActiveChange(active);
+				}
+			}
+			for (BaseLifecycle child : children.snapshot()) {
+				child.updateState();
+			}
+		}
+	}
+
+	/**
+	 * Sets all event listeners to null.
+	 * Use this to mark event listeners as invalid.
+	 * They need to be re-registered again with registerListener later.
+	 *
+	 * Subclasses must call this when event listeners get invalid.
+	 */
+	protected void invalidateEventListeners() {
+		for (Registration registration : eventDispatchers.values()) {
+			registration.eventDispatcher.setListener(null);
+		}
+	}
+
+	/**
+	 * Subclasses must call this when the lifecycle is destroyed.
+	 * This automatically invalidates all listeners, so no extra call to invalidateEventListeners is needed.
+	 *
+	 * All child lifecycles are destroyed first. Destroying an already destroyed lifecycle does nothing.
+	 */
+	protected void destroy() {
+		if (destroyed) {
+			return;
+		}
+		this.destroyed = true;
+
+		BaseLifecycle[] destroyedChildren = children.snapshot();
+		children.clear();
+		for (BaseLifecycle child : destroyedChildren) {
+			child.parent = null;
+			child.destroy();
+		}
+		if (parent != null) {
+			parent.children.remove(this);
+			parent = null;
+		}
+
+		invalidateEventListeners();
+		for (OnDestroyListener listener : onDestroyListeners.snapshot()) {
+			listener.onDestroy();
+		}
+	}
+
+	@Override
+	public <T> EventReceiver<T> registerListener(String tag, boolean storeWhileInactive, EventListener<T> listener) {
+		return registerListener(tag, ListenerOptions.fromStoreWhileInactive(storeWhileInactive), listener);
+	}
+
+	@Override
+	public <T> EventReceiver<T> registerListener(String tag, ListenerOptions<? super T> options, EventListener<T> listener) {
+		return registerListener(ListenerKey.<T>of(tag), options, listener);
+	}
+
+	@Override
+	public <T> EventReceiver<T> registerListener(ListenerKey<T> key, boolean storeWhileInactive, EventListener<T> listener) {
+		return registerListener(key, ListenerOptions.fromStoreWhileInactive(storeWhileInactive), listener);
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public <T> EventReceiver<T> registerListener(ListenerKey<T> key, ListenerOptions<? super T> options, EventListener<T> listener) {
+		Registration registration = eventDispatchers.get(key.getName());
+		LifecycleEventDispatcher<T> eventDispatcher;
+		if (registration == null) {
+			eventDispatcher = new LifecycleEventDispatcher<>(this, options);
+			eventDispatcher.addOnDestroyListener(new DispatcherRemover<T>(key.getName()));
+			eventDispatchers.put(key.getName(), new Registration(eventDispatcher, key.getType()));
+			destroyIfLate(eventDispatcher);
+		} else {
+			registration.checkType(key);
+			// typed keys of the name all have the same type, tags are unchecked
+			eventDispatcher = (LifecycleEventDispatcher<T>) registration.eventDispatcher;
+		}
+
+		eventDispatcher.setListener(listener);
+		return eventDispatcher;
+	}
+
+	/**
+	 * Destroys a dispatcher created after this lifecycle was destroyed, so it discards all events
+	 * and work using it can be cancelled.
+	 */
+	private void destroyIfLate(LifecycleEventDispatcher<?> eventDispatcher) {
+		if (destroyed) {
+			eventDispatcher.release();
+		}
+	}
+
+	@Override
+	public <T> EventReceiver<T> registerOneShotListener(String tag, EventListener<T> listener) {
+		return registerListener(tag, ListenerOptions.request(), listener);
+	}
+
+	@Override
+	public <T> EventReceiver<T> registerOneShotListener(ListenerKey<T> key, EventListener<T> listener) {
+		return registerListener(key, ListenerOptions.request(), listener);
+	}
+
+	@Override
+	public boolean unregisterListener(String tag) {
+		return unregisterListener(ListenerKey.of(tag));
+	}
+
+	@Override
+	public boolean unregisterListener(ListenerKey<?> key) {
+		Registration registration = eventDispatchers.get(key.getName());
+		if (registration == null) {
+			return false;
+		}
+		// removed from the dispatchers by its DispatcherRemover
+		registration.eventDispatcher.release();
+		return true;
+	}
+
+	@Override
+	public long getDroppedEventCount(String tag) {
+		return getDroppedEventCount(ListenerKey.of(tag));
+	}
+
+	@Override
+	public long getDroppedEventCount(ListenerKey<?> key) {
+		Registration registration = eventDispatchers.get(key.getName());
+		return registration != null ? registration.eventDispatcher.getDroppedEventCount() : 0;
+	}
+
+	/**
+	 * Removes a destroyed dispatcher registered with the given key name.
+	 * Dispatchers of a destroyed lifecycle are kept, so late registrations get the destroyed dispatcher
+	 * which discards all events.
+	 */
+	private void removeDispatcher(String name, EventReceiver<?> eventDispatcher) {
+		if (destroyed) {
+			return;
+		}
+
+		Registration registration = eventDispatchers.get(name);
+		if (registration != null && registration.eventDispatcher == eventDispatcher) {
+			eventDispatchers.remove(name);
+		}
+	}
+
+	/**
+	 * A dispatcher together with the event type of the keys it was registered with.
+	 */
+	private static final class Registration {
+
+		final LifecycleEventDispatcher<?> eventDispatcher;
+
+		/**
+		 * The type of the first typed key, null while only registered by tag.
+		 */
+		private Class<?> type;
+
+		Registration(LifecycleEventDispatcher<?> eventDispatcher, Class<?> type) {
+			this.eventDispatcher = eventDispatcher;
+			this.type = type;
+		}
+
+		/**
+		 * @throws IllegalArgumentException if the key has a different type than earlier typed keys.
+		 */
+		void checkType(ListenerKey<?> key) {
+			if (key.getType() == null) {
+				return;
+			}
+			if (type == null) {
+				type = key.getType();
+			} else if (type != key.getType()) {
+				throw new IllegalArgumentException("Listener " + key.getName() + " is registered with type "
+						+ type.getName() + ", can't use it with type " + key.getType().getName());
+			}
+		}
+	}
+
+	/**
+	 * Removes a dispatcher from this lifecycle when it is destroyed.
+	 */
+	private class DispatcherRemover<T> implements EventReceiver.OnDestroyListener<T> {
+
+		private final String name;
+
+		DispatcherRemover(String name) {
+			this.name = name;
+		}
+
+		@Override
+		public void onDestroy(EventReceiver<T> eventReceiver) {
+			removeDispatcher(name, eventReceiver);
+		}
+	}
+
+	@Override
+	public void addActiveChangeListener(ActiveChangeListener listener) {
+		this.activeChangeListeners.add(listener);
+	}
+
+	@Override
+	public void removeActiveChangeListener(ActiveChangeListener listener) {
+		this.activeChangeListeners.remove(listener);
+	}
+
+	@Override
+	public void addStateChangeListener(StateChangeListener listener) {
+		this.stateChangeListeners.add(listener);
+	}
+
+	@Override
+	public void removeStateChangeListener(StateChangeListener listener) {
+		this.stateChangeListeners.remove(listener);
+	}
+
+	@Override
+	public void addOnDestroyListener(OnDestroyListener listener) {
+		this.onDestroyListeners.add(listener);
+	}
+
+	@Override
+	public void removeOnDestroyListener(OnDestroyListener listener) {
+		this.onDestroyListeners.remove(listener);
+	}
+
+	@Override
+	public InFlightRequests getInFlightRequests() {
+		InFlightRequests requests = inFlightRequests;
+		if (requests == null) {
+			synchronized (this) {
+				requests = inFlightRequests;
+				if (requests == null) {
+					requests = new InFlightRequests(this);
+					inFlightRequests = requests;
+				}
+			}
+		}
+		return requests;
+	}
+
+	@Override
+	public DispatchScheduler getScheduler() {
+		return scheduler;
+	}
+
+	@Override
+	public boolean isActive() {
+		return state == LifecycleState.RESUMED;
+	}
+
+	@Override
+	public LifecycleState getState() {
+		return state;
+	}
+
+	@Override
+	public boolean isDestroyed() {
+		return destroyed;
+	}
+}
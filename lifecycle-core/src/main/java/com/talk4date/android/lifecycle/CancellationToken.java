@@ -0,0 +1,141 @@
+package com.talk4date.android.lifecycle;
+
+import java.util.concurrent.CancellationException;
+
+/**
+ * Tells long running work that nobody is interested in its result anymore.
+ *
+ * A token created with {@link #of(EventReceiver)} is cancelled as soon as the event receiver is destroyed,
+ * for example because its lifecycle was destroyed or because a one shot receiver already got its event.
+ * Work can either poll {@link #isCancelled()}, which is a single volatile read and can be called from any thread,
+ * or add an {@link OnCancelListener} to abort pending tasks, e.g. to remove a callback from a handler.
+ *
+ * Cancel listeners are called on the thread that cancels the token, for tokens of an event receiver
+ * this is the dispatch thread of its lifecycle.
+ */
+public final class CancellationToken {
+
+	private volatile boolean cancelled = false;
+
+	private final ListenerRegistry<OnCancelListener> onCancelListeners =
+			new ListenerRegistry<>(new OnCancelListener[0]);
+
+	/**
+	 * Detaches the token from its event receiver, null for tokens without receiver.
+	 */
+	private volatile Runnable detachAction;
+
+	/**
+	 * Creates a token that is only cancelled by {@link #cancel()}.
+	 */
+	public CancellationToken() {
+	}
+
+	/**
+	 * Creates a token that is cancelled when the given event receiver is destroyed.
+	 * If the receiver is already destroyed the token is cancelled right away.
+	 */
+	public static <T> CancellationToken of(final EventReceiver<T> receiver) {
+		final CancellationToken token = new CancellationToken();
+		final EventReceiver.OnDestroyListener<T> onDestroyListener = new EventReceiver.OnDestroyListener<T>() {
+			@Override
+			public void onDestroy(EventReceiver<T> eventReceiver) {
+				token.cancel();
+			}
+		};
+		token.detachAction = new Runnable() {
+			@Override
+			public void run() {
+				receiver.removeOnDestroyListener(onDestroyListener);
+			}
+		};
+		receiver.addOnDestroyListener(onDestroyListener);
+		// checked after adding the listener, so a receiver destroyed in between on another thread is not missed
+		if (receiver.isDestroyed()) {
+			token.cancel();
+		}
+		return token;
+	}
+
+	/**
+	 * True when the token was cancelled and the work should be aborted.
+	 */
+	public boolean isCancelled() {
+		return cancelled;
+	}
+
+	/**
+	 * Throws if the token was cancelled, for work that aborts with an exception.
+	 *
+	 * @throws CancellationException if the token was cancelled.
+	 */
+	public void throwIfCancelled() {
+		if (cancelled) {
+			throw new CancellationException("Work was cancelled");
+		}
+	}
+
+	/**
+	 * Cancels the token and notifies all cancel listeners.
+	 * Cancelling an already cancelled token does nothing.
+	 */
+	public void cancel() {
+		OnCancelListener[] listeners;
+		synchronized (this) {
+			if (cancelled) {
+				return;
+			}
+			cancelled = true;
+			listeners = onCancelListeners.snapshot();
+			onCancelListeners.clear();
+		}
+
+		for (OnCancelListener listener : listeners) {
+			listener.onCancel();
+		}
+	}
+
+	/**
+	 * Call this when the work finished, so neither the event receiver nor the cancel listeners keep references
+	 * to the work. Afterwards the token is no longer cancelled when the event receiver is destroyed.
+	 *
+	 * Only needed for receivers that live longer than the work, one shot receivers are destroyed anyway.
+	 */
+	public void detach() {
+		Runnable detachAction = this.detachAction;
+		if (detachAction != null) {
+			this.detachAction = null;
+			detachAction.run();
+		}
+		onCancelListeners.clear();
+	}
+
+	/**
+	 * Adds a listener that is notified when the token is cancelled.
+	 * If the token is already cancelled the listener is called immediately.
+	 */
+	public void addOnCancelListener(OnCancelListener listener) {
+		synchronized (this) {
+			if (!cancelled) {
+				onCancelListeners.add(listener);
+				return;
+			}
+		}
+		listener.onCancel();
+	}
+
+	/**
+	 * Removes a previously added cancel listener.
+	 */
+	public void removeOnCancelListener(OnCancelListener listener) {
+		onCancelListeners.remove(listener);
+	}
+
+	public static interface OnCancelListener {
+
+		/**
+		 * Called when the token is cancelled.
+		 */
+		void onCancel();
+	}
+}
@@ -0,0 +1,112 @@
+package com.talk4date.android.lifecycle;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Hands events posted from background threads over to the dispatch thread.
+ *
+ * Producers enqueue without locking. Instead of one scheduler task per event,
+ * only a single task is posted per burst, which then drains the queued events in batches.
+ *
+ * @param <T> The type of events in this queue.
+ */
+class CoalescingEventQueue<T> {
+
+	/**
+	 * Placeholder for null events, because the underlying queue does not accept null.
+	 */
+	private static final Object NULL_EVENT = new Object();
+
+	/**
+	 * Scheduler used to drain the queue on the dispatch thread.
+	 */
+	private final DispatchScheduler scheduler;
+
+	/**
+	 * Receives the drained events on the dispatch thread.
+	 */
+	private final Consumer<T> consumer;
+
+	/**
+	 * Events waiting to be drained.
+	 */
+	private final ConcurrentLinkedQueue<Object> events = new ConcurrentLinkedQueue<>();
+
+	/**
+	 * Maximum number of events delivered by a single drain task, so a long burst does not block the dispatch thread.
+	 * Remaining events are delivered by the next drain task, posted behind the tasks already waiting.
+	 */
+	static final int MAX_EVENTS_PER_DRAIN = 256;
+
+	/**
+	 * True while a drain task is posted or running.
+	 * Producers only post a drain task when it is false, so a burst of events needs a single task.
+	 */
+	private final AtomicBoolean drainScheduled = new AtomicBoolean(false);
+
+	private final Runnable drain = new Runnable() {
+		@Override
+		public void run() {
+			drain();
+		}
+	};
+
+	/**
+	 * @param scheduler The scheduler of the dispatch thread.
+	 * @param consumer Receives all events on the dispatch thread in the order they were posted.
+	 */
+	CoalescingEventQueue(DispatchScheduler scheduler, Consumer<T> consumer) {
+		this.scheduler = scheduler;
+		this.consumer = consumer;
+	}
+
+	/**
+	 * Enqueues the event and schedules a drain on the dispatch thread if none is pending yet.
+	 * Can be called from any thread.
+	 */
+	void post(T event) {
+		events.offer(event == null ? NULL_EVENT : event);
+		if (drainScheduled.compareAndSet(false, true)) {
+			scheduler.post(drain);
+		}
+	}
+
+	/**
+	 * Delivers up to {@link #MAX_EVENTS_PER_DRAIN} queued events to the consumer.
+	 *
+	 * The drain task stays scheduled while it runs, so producers posting during the drain don't post another task.
+	 * Only after the queue was seen empty the flag is cleared, the queue is checked once more afterwards
+	 * for events posted in between. If events are left, another drain task is posted.
+	 *
+	 * If the consumer throws, e.g. because of {@link OverflowPolicy#FAIL_FAST}, the exception is propagated
+	 * and the remaining events are delivered by the next drain task.
+	 */
+	@SuppressWarnings("unchecked")
+	private void drain() {
+		try {
+			Object event;
+			for (int i = 0; i < MAX_EVENTS_PER_DRAIN && (event = events.poll()) != null; i++) {
+				consumer.consume(event == NULL_EVENT ? null : (T) event);
+			}
+		} finally {
+			if (stillScheduled()) {
+				scheduler.post(drain);
+			}
+		}
+	}
+
+	/**
+	 * Clears the scheduled flag if the queue is empty.
+	 *
+	 * @return true if events are left and the flag is still set, so the drain task must be posted again.
+	 */
+	private boolean stillScheduled() {
+		if (!events.isEmpty()) {
+			return true;
+		}
+		drainScheduled.set(false);
+		// a producer might have enqueued after the check but seen the flag still set
+		return !events.isEmpty() && drainScheduled.compareAndSet(false, true);
+	}
+}
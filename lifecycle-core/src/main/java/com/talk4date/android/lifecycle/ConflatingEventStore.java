@@ -0,0 +1,65 @@
+package com.talk4date.android.lifecycle;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Event store that only keeps the latest event per key.
+ *
+ * Keys keep the position of their first stored event, so replaying the store costs one dispatch
+ * per distinct key no matter how many events were posted.
+ *
+ * @param <T> The type of events in the store.
+ */
+class ConflatingEventStore<T> implements EventStore<T> {
+
+	private final EventKeyExtractor<? super T> keyExtractor;
+
+	/**
+	 * Latest event by key, in insertion order of the keys.
+	 */
+	private final LinkedHashMap<Object, T> eventsByKey = new LinkedHashMap<>();
+
+	ConflatingEventStore(EventKeyExtractor<? super T> keyExtractor) {
+		this.keyExtractor = keyExtractor;
+	}
+
+	@Override
+	public boolean replace(T event) {
+		Object key = keyExtractor.keyOf(event);
+		if (eventsByKey.containsKey(key)) {
+			eventsByKey.put(key, event);
+			return true;
+		}
+		return false;
+	}
+
+	@Override
+	public void add(T event) {
+		eventsByKey.put(keyExtractor.keyOf(event), event);
+	}
+
+	@Override
+	public T poll() {
+		Iterator<Map.Entry<Object, T>> it = eventsByKey.entrySet().iterator();
+		T event = it.next().getValue();
+		it.remove();
+		return event;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return eventsByKey.isEmpty();
+	}
+
+	@Override
+	public int size() {
+		return eventsByKey.size();
+	}
+
+	@Override
+	public void clear() {
+		eventsByKey.clear();
+	}
+}
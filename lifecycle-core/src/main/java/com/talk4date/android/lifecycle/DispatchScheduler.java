@@ -0,0 +1,31 @@
+package com.talk4date.android.lifecycle;
+
+/**
+ * Schedules work on the thread on which lifecycle events are dispatched.
+ *
+ * On Android this is the main thread, see {@link MainThreadScheduler}.
+ * {@link ImmediateScheduler} and {@link VirtualTimeScheduler} allow to run the event dispatching
+ * without an Android runtime, e.g. in plain JVM tests and benchmarks.
+ */
+public interface DispatchScheduler {
+
+	/**
+	 * True if the calling thread is the dispatch thread.
+	 * Events posted on the dispatch thread are dispatched synchronously.
+	 */
+	boolean isDispatchThread();
+
+	/**
+	 * Runs the task on the dispatch thread after all previously posted tasks.
+	 * Can be called from any thread.
+	 */
+	void post(Runnable task);
+
+	/**
+	 * Runs the task on the dispatch thread after the given delay.
+	 * Can be called from any thread.
+	 *
+	 * @param delayMillis The delay in milliseconds.
+	 */
+	void postDelayed(Runnable task, long delayMillis);
+}
@@ -0,0 +1,17 @@
+package com.talk4date.android.lifecycle;
+
+/**
+ * Extracts the key of an event.
+ * Stored events with equal keys are conflated, so only the latest event per key is dispatched.
+ *
+ * @param <T> The type of events.
+ * @see ListenerOptions#conflatedBy(EventKeyExtractor)
+ */
+public interface EventKeyExtractor<T> {
+
+	/**
+	 * Returns the key of the event.
+	 * Keys are compared with equals and hashCode, null is a valid key.
+	 */
+	Object keyOf(T event);
+}
@@ -1,22 +1,18 @@
 package com.talk4date.android.lifecycle;
 
-import java.util.HashSet;
-import java.util.Set;
-
 /**
  * List of event receivers which makes sure destroyed event receivers are removed from the list,
  * and also allows simply posting of events to all contained eventreceivers.
  */
 public class EventReceivers<T> implements EventReceiver.OnDestroyListener<T> {
-	private Set<EventReceiver<T>> eventReceivers = new HashSet<>();
+	private final ListenerRegistry<EventReceiver<T>> eventReceivers = ListenerRegistry.forEventReceivers();
 
 	/**
 	 * Registers the given event receiver to be notified of events. If the event receiver was previously registered,
 	 * this method is a no-op.
 	 */
 	public void registerEventReceiver(EventReceiver<T> eventReceiver) {
-		if (!eventReceivers.contains(eventReceiver)) {
-			eventReceivers.add(eventReceiver);
+		if (eventReceivers.addIfAbsent(eventReceiver)) {
 			eventReceiver.addOnDestroyListener(this);
 		}
 	}
@@ -35,8 +31,13 @@ public class EventReceivers<T> implements EventReceiver.OnDestroyListener<T> {
 		unregisterEventReceiver(eventReceiver);
 	}
 
+	/**
+	 * Posts the event to all registered event receivers.
+	 * Iterates over a snapshot, because receivers can be destroyed and removed while the event is posted,
+	 * e.g. one shot receivers or listeners unregistering themselves.
+	 */
 	public void postEvent(T event) {
-		for (EventReceiver<T> receiver : eventReceivers) {
+		for (EventReceiver<T> receiver : eventReceivers.snapshot()) {
 			receiver.postEvent(event);
 		}
 	}
@@ -0,0 +1,129 @@
+package com.talk4date.android.lifecycle;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * Growable circular buffer of events, bounded by a maximum capacity.
+ * Adding to the tail and removing from the head are both O(1).
+ *
+ * Not thread safe, only used on the main thread.
+ *
+ * @param <T> The type of events in the buffer.
+ */
+class EventRingBuffer<T> implements EventStore<T> {
+
+	static final int DEFAULT_CAPACITY = 8;
+
+	private Object[] elements;
+
+	/**
+	 * The number of elements the buffer never grows beyond.
+	 */
+	private final int maxCapacity;
+
+	/**
+	 * Index of the first element.
+	 */
+	private int head = 0;
+
+	/**
+	 * Number of elements in the buffer.
+	 */
+	private int size = 0;
+
+	EventRingBuffer() {
+		this(DEFAULT_CAPACITY, Integer.MAX_VALUE);
+	}
+
+	/**
+	 * @param initialCapacity The number of elements the buffer can hold before it grows.
+	 * @param maxCapacity The maximum number of elements, the buffer never grows beyond.
+	 */
+	EventRingBuffer(int initialCapacity, int maxCapacity) {
+		this.maxCapacity = Math.max(1, maxCapacity);
+		this.elements = new Object[Math.max(1, Math.min(initialCapacity, this.maxCapacity))];
+	}
+
+	/**
+	 * The ring buffer never conflates events.
+	 */
+	@Override
+	public boolean replace(T event) {
+		return false;
+	}
+
+	/**
+	 * Appends the event to the tail of the buffer, growing it if needed.
+	 *
+	 * @throws IllegalStateException if the buffer already holds the maximum number of elements.
+	 */
+	@Override
+	public void add(T event) {
+		if (size == elements.length) {
+			grow();
+		}
+		elements[(head + size) % elements.length] = event;
+		size++;
+	}
+
+	/**
+	 * Removes and returns the event at the head of the buffer.
+	 *
+	 * @throws NoSuchElementException if the buffer is empty.
+	 */
+	@SuppressWarnings("unchecked")
+	@Override
+	public T poll() {
+		if (size == 0) {
+			throw new NoSuchElementException("Event buffer is empty");
+		}
+		T event = (T) elements[head];
+		elements[head] = null;
+		head = (head + 1) % elements.length;
+		size--;
+		return event;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * The number of elements the buffer can hold without growing.
+	 */
+	int capacity() {
+		return elements.length;
+	}
+
+	/**
+	 * Removes all events and releases the references to them.
+	 */
+	@Override
+	public void clear() {
+		Arrays.fill(elements, null);
+		head = 0;
+		size = 0;
+	}
+
+	/**
+	 * Doubles the capacity up to the maximum capacity and moves the elements to the start of the new array.
+	 */
+	private void grow() {
+		if (elements.length == maxCapacity) {
+			throw new IllegalStateException("Event buffer is full, maximum capacity is " + maxCapacity);
+		}
+		Object[] grown = new Object[(int) Math.min((long) elements.length * 2, maxCapacity)];
+		int firstPart = elements.length - head;
+		System.arraycopy(elements, head, grown, 0, firstPart);
+		System.arraycopy(elements, 0, grown, firstPart, head);
+		elements = grown;
+		head = 0;
+	}
+}
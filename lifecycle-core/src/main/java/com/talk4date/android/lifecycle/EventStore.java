@@ -0,0 +1,40 @@
+package com.talk4date.android.lifecycle;
+
+/**
+ * Storage for events that can not be dispatched while the lifecycle is inactive.
+ * Events are returned in the order they were added.
+ *
+ * Not thread safe, only used on the main thread.
+ *
+ * @param <T> The type of events in the store.
+ */
+interface EventStore<T> {
+
+	/**
+	 * Tries to store the event in place of an already stored event.
+	 *
+	 * @return true if the event replaced a stored event, false if it needs to be added.
+	 */
+	boolean replace(T event);
+
+	/**
+	 * Adds the event after all stored events.
+	 */
+	void add(T event);
+
+	/**
+	 * Removes and returns the oldest stored event.
+	 *
+	 * @throws java.util.NoSuchElementException if the store is empty.
+	 */
+	T poll();
+
+	boolean isEmpty();
+
+	int size();
+
+	/**
+	 * Removes all stored events.
+	 */
+	void clear();
+}
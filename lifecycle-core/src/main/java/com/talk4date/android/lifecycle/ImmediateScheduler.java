@@ -0,0 +1,36 @@
+package com.talk4date.android.lifecycle;
+
+/**
+ * Dispatch scheduler that treats every thread as dispatch thread and runs tasks directly on the calling thread.
+ * Delays are ignored.
+ *
+ * Useful for single threaded tests and benchmarks where the scheduling overhead should not be measured.
+ */
+public class ImmediateScheduler implements DispatchScheduler {
+
+	private static final ImmediateScheduler instance = new ImmediateScheduler();
+
+	private ImmediateScheduler() {}
+
+	/**
+	 * Get the shared immediate scheduler.
+	 */
+	public static ImmediateScheduler get() {
+		return instance;
+	}
+
+	@Override
+	public boolean isDispatchThread() {
+		return true;
+	}
+
+	@Override
+	public void post(Runnable task) {
+		task.run();
+	}
+
+	@Override
+	public void postDelayed(Runnable task, long delayMillis) {
+		task.run();
+	}
+}
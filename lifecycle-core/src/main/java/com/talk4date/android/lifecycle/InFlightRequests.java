@@ -0,0 +1,110 @@
+package com.talk4date.android.lifecycle;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Requests in flight by listener tag, usually kept by a session lifecycle, see {@link Lifecycle#getInFlightRequests()}.
+ *
+ * A component issues a request with {@link #start(String, EventListener)} and passes the returned request receiver
+ * to the service. The request receiver is a one shot receiver registered with the tag in the lifecycle of the registry,
+ * see {@link Lifecycle#registerOneShotListener(String, EventListener)}. So the result is kept on the session side
+ * until the listener actually received it, also when it arrives while the component is paused or being recreated.
+ *
+ * When the component is recreated, e.g. on a configuration change, the new instance calls
+ * {@link #attach(String, EventListener)} with its listener and skips issuing the request again if a request
+ * is still pending.
+ *
+ * When the lifecycle of the registry is destroyed, all request receivers are destroyed,
+ * which cancels work using a {@link CancellationToken} of them.
+ *
+ * Requests must be started and attached on the dispatch thread of the lifecycle,
+ * {@link #isPending(String)} can be called from any thread.
+ */
+public class InFlightRequests {
+
+	private static final Logger log = LoggerFactory.getLogger(InFlightRequests.class);
+
+	/**
+	 * The lifecycle in which requests stay in flight.
+	 */
+	private final Lifecycle lifecycle;
+
+	/**
+	 * Receivers of the pending requests by tag, guarded by this.
+	 */
+	private final Map<String, EventReceiver<?>> requests = new HashMap<>();
+
+	/**
+	 * @param lifecycle The lifecycle in which requests stay in flight.
+	 */
+	public InFlightRequests(Lifecycle lifecycle) {
+		this.lifecycle = lifecycle;
+	}
+
+	/**
+	 * True if a request with the tag is in flight or its result was not yet dispatched to a listener.
+	 */
+	public synchronized boolean isPending(String tag) {
+		return requests.containsKey(tag);
+	}
+
+	/**
+	 * Attaches the listener to the pending request with the tag, replacing the previously attached listener.
+	 * A result that already arrived is dispatched as soon as the lifecycle is active.
+	 *
+	 * @param tag The listener tag of the request.
+	 * @param listener Receives the result of the request.
+	 * @return true if a request was pending, false if the request needs to be issued.
+	 */
+	public <T> boolean attach(String tag, EventListener<T> listener) {
+		if (!isPending(tag)) {
+			return false;
+		}
+
+		log.debug("attaching to pending request {}", tag);
+		lifecycle.registerOneShotListener(tag, listener);
+		return true;
+	}
+
+	/**
+	 * Starts tracking a new request with the tag and attaches the listener to it.
+	 * If a request with the tag is still pending, the listener is attached to it instead.
+	 *
+	 * @param tag The listener tag of the request.
+	 * @param listener Receives the result of the request.
+	 * @return The request receiver to pass to the service.
+	 */
+	public <T> EventReceiver<T> start(final String tag, EventListener<T> listener) {
+		final EventReceiver<T> receiver = lifecycle.registerOneShotListener(tag, listener);
+		if (receiver.isDestroyed()) {
+			return receiver;
+		}
+
+		synchronized (this) {
+			if (requests.get(tag) == receiver) {
+				return receiver;
+			}
+			requests.put(tag, receiver);
+		}
+		receiver.addOnDestroyListener(new EventReceiver.OnDestroyListener<T>() {
+			@Override
+			public void onDestroy(EventReceiver<T> eventReceiver) {
+				remove(tag, eventReceiver);
+			}
+		});
+		return receiver;
+	}
+
+	/**
+	 * Removes the request once its receiver was destroyed, after dispatching the result or with the lifecycle.
+	 */
+	private synchronized void remove(String tag, EventReceiver<?> receiver) {
+		if (requests.get(tag) == receiver) {
+			requests.remove(tag);
+		}
+	}
+}
@@ -0,0 +1,207 @@
+package com.talk4date.android.lifecycle;
+
+/**
+ * A lifecycle for events.
+ */
+public interface Lifecycle {
+
+	/**
+	 * If the lifecycle is currently active, this is in state {@link LifecycleState#RESUMED}.
+	 */
+	boolean isActive();
+
+	/**
+	 * The current state of the lifecycle.
+	 */
+	LifecycleState getState();
+
+	/**
+	 * True when the lifecycle is destroyed.
+	 */
+	boolean isDestroyed();
+
+	/**
+	 * The scheduler on whose thread events of this lifecycle are dispatched.
+	 */
+	DispatchScheduler getScheduler();
+
+	/**
+	 * Adds a listener to the lifecycle that is invoked when the active state changes.
+	 */
+	void addActiveChangeListener(ActiveChangeListener listener);
+
+	/**
+	 * Remove a previously added active change listener.
+	 */
+	void removeActiveChangeListener(ActiveChangeListener listener);
+
+	/**
+	 * Adds a listener to the lifecycle that is invoked when the state changes.
+	 */
+	void addStateChangeListener(StateChangeListener listener);
+
+	/**
+	 * Remove a previously added state change listener.
+	 */
+	void removeStateChangeListener(StateChangeListener listener);
+
+	/**
+	 * Adds a listener to the lifecycle that is invoked when the lifecycle is destroyed.
+	 */
+	void addOnDestroyListener(OnDestroyListener listener);
+
+	/**
+	 * Removes a previously added on destroy listener.
+	 */
+	void removeOnDestroyListener(OnDestroyListener listener);
+
+	/**
+	 * Configures an event receiver in this lifecycle with the given listener.
+	 * Events posted to the created EventReceiver will only be forwarded to the listener when the lifecycle is active.
+	 *
+	 * Multiple registrations with the same tag in the same lifecycle will cause the listener to be updated.
+	 *
+	 * @param tag A tag that identifies the listener
+	 * @param storeWhileInactive If events should be stored and dispatched later when the lifecycle is inactive.
+	 * @param listener The listener to invoke with the events from the event receiver.
+	 * @return The event receiver.
+	 */
+	<T> EventReceiver<T> registerListener(String tag, boolean storeWhileInactive, EventListener<T> listener);
+
+	/**
+	 * Configures an event receiver in this lifecycle with the given listener.
+	 * Works like {@link #registerListener(String, boolean, EventListener)},
+	 * but allows to limit how many events are stored while the lifecycle is inactive.
+	 *
+	 * The options are only applied when the tag is registered for the first time.
+	 *
+	 * @param tag A tag that identifies the listener
+	 * @param options Defines how events are handled while the lifecycle is inactive.
+	 * @param listener The listener to invoke with the events from the event receiver.
+	 * @return The event receiver.
+	 */
+	<T> EventReceiver<T> registerListener(String tag, ListenerOptions<? super T> options, EventListener<T> listener);
+
+	/**
+	 * Configures an event receiver in this lifecycle with the given listener.
+	 * Works like {@link #registerListener(String, boolean, EventListener)}, but identifies the listener
+	 * by a typed key, so the same key can't be used with different event types.
+	 * A tag and a key with the same name identify the same listener.
+	 *
+	 * @param key The key that identifies the listener.
+	 * @param storeWhileInactive If events should be stored and dispatched later when the lifecycle is inactive.
+	 * @param listener The listener to invoke with the events from the event receiver.
+	 * @return The event receiver.
+	 */
+	<T> EventReceiver<T> registerListener(ListenerKey<T> key, boolean storeWhileInactive, EventListener<T> listener);
+
+	/**
+	 * Configures an event receiver in this lifecycle with the given listener.
+	 * Works like {@link #registerListener(String, ListenerOptions, EventListener)}, but identifies the listener
+	 * by a typed key, so the same key can't be used with different event types.
+	 *
+	 * @param key The key that identifies the listener.
+	 * @param options Defines how events are handled while the lifecycle is inactive.
+	 * @param listener The listener to invoke with the events from the event receiver.
+	 * @return The event receiver.
+	 */
+	<T> EventReceiver<T> registerListener(ListenerKey<T> key, ListenerOptions<? super T> options, EventListener<T> listener);
+
+	/**
+	 * Configures an event receiver for a single request in this lifecycle with the given listener.
+	 * The response is stored while the lifecycle is inactive. After it was dispatched the event receiver
+	 * destroys itself, notifies its {@link EventReceiver.OnDestroyListener}s and is removed from the lifecycle,
+	 * so services don't need to keep track of it and the next registration with the tag creates a new receiver.
+	 *
+	 * Registering the tag again while the request is pending updates the listener of the pending receiver.
+	 * The options are only applied when the tag is registered for the first time, so a tag must not be used
+	 * with {@link #registerListener(String, boolean, EventListener)} at the same time.
+	 *
+	 * @param tag A tag that identifies the listener
+	 * @param listener The listener to invoke with the response.
+	 * @return The event receiver for a single event.
+	 * @see ListenerOptions#request()
+	 */
+	<T> EventReceiver<T> registerOneShotListener(String tag, EventListener<T> listener);
+
+	/**
+	 * Configures an event receiver for a single request in this lifecycle with the given listener.
+	 * Works like {@link #registerOneShotListener(String, EventListener)}, but identifies the listener
+	 * by a typed key.
+	 *
+	 * @param key The key that identifies the listener.
+	 * @param listener The listener to invoke with the response.
+	 * @return The event receiver for a single event.
+	 */
+	<T> EventReceiver<T> registerOneShotListener(ListenerKey<T> key, EventListener<T> listener);
+
+	/**
+	 * Removes the listener registered with the given tag and destroys its event receiver.
+	 * The {@link EventReceiver.OnDestroyListener}s of the receiver are notified and stored events are discarded.
+	 *
+	 * @param tag The tag of the listener.
+	 * @return true if a listener was registered with the tag.
+	 */
+	boolean unregisterListener(String tag);
+
+	/**
+	 * Removes the listener registered with the given key and destroys its event receiver.
+	 * @see #unregisterListener(String)
+	 *
+	 * @param key The key of the listener.
+	 * @return true if a listener was registered with the key.
+	 */
+	boolean unregisterListener(ListenerKey<?> key);
+
+	/**
+	 * The number of events for the listener registered with the given tag that were dropped,
+	 * because the capacity for stored events was exhausted while the lifecycle was inactive.
+	 * @see ListenerOptions#storeWhileInactive(int, OverflowPolicy)
+	 *
+	 * @param tag The tag of the listener.
+	 * @return The number of dropped events, 0 if no listener is registered with the tag.
+	 */
+	long getDroppedEventCount(String tag);
+
+	/**
+	 * The number of events for the listener registered with the given key that were dropped.
+	 * @see #getDroppedEventCount(String)
+	 *
+	 * @param key The key of the listener.
+	 * @return The number of dropped events, 0 if no listener is registered with the key.
+	 */
+	long getDroppedEventCount(ListenerKey<?> key);
+
+	/**
+	 * The requests in flight in this lifecycle by listener tag, kept until their result was dispatched
+	 * or the lifecycle is destroyed. Components use the requests of their session lifecycle to reconnect
+	 * to a request issued by a previous instance instead of issuing it again.
+	 */
+	InFlightRequests getInFlightRequests();
+
+	public static interface ActiveChangeListener {
+
+		/**
+		 * Called when the active state of the lifecycle changes.
+		 * @param active The new active state.
+		 */
+		void onActiveChange(boolean active);
+	}
+
+	public static interface StateChangeListener {
+
+		/**
+		 * Called when the state of the lifecycle changes.
+		 * @param state The new state.
+		 */
+		void onStateChange(LifecycleState state);
+	}
+
+	public static interface OnDestroyListener {
+
+		/**
+		 * Called when the lifecycle is destroyed.
+		 */
+		void onDestroy();
+	}
+}
@@ -0,0 +1,314 @@
+package com.talk4date.android.lifecycle;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * An event dispatcher that dispatches events to a listener when its lifecycle is active,
+ * or in the state configured by {@link ListenerOptions#activeFrom(LifecycleState)}.
+ * @param <T> The type of event for this dispatcher.
+ */
+public class LifecycleEventDispatcher<T> implements EventReceiver<T>, Lifecycle.OnDestroyListener, Lifecycle.StateChangeListener {
+
+	private static final Logger log = LoggerFactory.getLogger(LifecycleEventDispatcher.class);
+
+	/**
+	 * Scheduler of the thread on which events are dispatched.
+	 */
+	private final DispatchScheduler scheduler;
+
+	/**
+	 * Queue used to hand events posted from other threads over to the dispatch thread.
+	 */
+	private final CoalescingEventQueue<T> dispatchThreadQueue;
+
+	/**
+	 * The lifecycle in which this event receiver forwards events to the listener.
+	 */
+	private Lifecycle lifecycle;
+
+	/**
+	 * The current listener for this LifecycleEventReceiver, null while no listener is registered.
+	 */
+	private EventListener<T> listener;
+
+	/**
+	 * If events should be stored when the lifecycle is inactive.
+	 * If true the events will be forwarded to the listener as soon as the lifecycle becomes active again.
+	 */
+	private boolean storeWhileInactive;
+
+	/**
+	 * The lowest lifecycle state in which events are dispatched.
+	 */
+	private LifecycleState activeFrom;
+
+	/**
+	 * If the dispatcher is released after the first dispatched event.
+	 */
+	private boolean oneShot;
+
+	/**
+	 * The maximum number of stored events.
+	 */
+	private int capacity;
+
+	/**
+	 * What to do with events when the capacity is exhausted.
+	 */
+	private OverflowPolicy overflowPolicy;
+
+	/**
+	 * Events that have been stored for later dispatch.
+	 */
+	private EventStore<T> pendingEvents;
+
+	/**
+	 * Number of stored events that were dropped because of the capacity limit.
+	 */
+	private long droppedEvents = 0;
+
+	/**
+	 * List of all on destroy listeners.
+	 */
+	private final ListenerRegistry<OnDestroyListener<T>> onDestroyListeners = ListenerRegistry.forOnDestroyListeners();
+
+	/**
+	 * If the lifecycle has been destroyed.
+	 */
+	private boolean destroyed = false;
+
+	/**
+	 * Create a new lifecycle event receiver.
+	 *
+	 * @param lifecycle The lifecycle for this receiver.
+	 * @param storeWhileInactive If events should be stored when the lifecycle is inactive.
+	 */
+	public LifecycleEventDispatcher(Lifecycle lifecycle, boolean storeWhileInactive) {
+		this(lifecycle, ListenerOptions.fromStoreWhileInactive(storeWhileInactive));
+	}
+
+	/**
+	 * Create a new lifecycle event receiver.
+	 *
+	 * @param lifecycle The lifecycle for this receiver.
+	 * @param options Defines if and how many events are stored when the lifecycle is inactive.
+	 */
+	public LifecycleEventDispatcher(Lifecycle lifecycle, ListenerOptions<? super T> options) {
+		this.lifecycle = lifecycle;
+		this.scheduler = lifecycle.getScheduler();
+		this.dispatchThreadQueue = new CoalescingEventQueue<>(scheduler, new Consumer<T>() {
+			@Override
+			public void consume(T event) {
+				postEventSync(event);
+			}
+		});
+		this.storeWhileInactive = options.isStoreWhileInactive();
+		this.activeFrom = options.getActiveFrom();
+		this.oneShot = options.isOneShot();
+		this.capacity = options.getCapacity();
+		this.overflowPolicy = options.getOverflowPolicy();
+		this.pendingEvents = createEventStore(options);
+
+		lifecycle.addStateChangeListener(this);
+		lifecycle.addOnDestroyListener(this);
+	}
+
+	/**
+	 * Creates the store for events posted while the lifecycle is inactive.
+	 */
+	private static <T> EventStore<T> createEventStore(ListenerOptions<? super T> options) {
+		EventKeyExtractor<? super T> keyExtractor = options.getKeyExtractor();
+		if (keyExtractor != null) {
+			return new ConflatingEventStore<T>(keyExtractor);
+		}
+		return new EventRingBuffer<>(EventRingBuffer.DEFAULT_CAPACITY, options.getCapacity());
+	}
+
+	/**
+	 * Lifecycle on state change listener.
+	 */
+	@Override
+	public void onStateChange(LifecycleState state) {
+		dispatchPendingIfReady();
+	}
+
+	/**
+	 * Lifecycle on destroy listener.
+	 * Propagate to our listeners that we are destroyed.
+	 */
+	@Override
+	public void onDestroy() {
+		this.destroyed = true;
+
+		for (OnDestroyListener<T> listener : onDestroyListeners.snapshot()) {
+			listener.onDestroy(this);
+		}
+
+		// Long running processes might still have references to us and keep us and alive.
+		// Therefore we give up everything not needed to free all resources as soon as possible.
+		this.lifecycle = null;
+		this.listener = null;
+		this.pendingEvents = null;
+		this.onDestroyListeners.clear();
+	}
+
+	/**
+	 * Destroys this dispatcher while its lifecycle lives on.
+	 * Unsubscribes from the lifecycle and notifies the on destroy listeners.
+	 */
+	void release() {
+		if (destroyed) {
+			return;
+		}
+		lifecycle.removeStateChangeListener(this);
+		lifecycle.removeOnDestroyListener(this);
+		onDestroy();
+	}
+
+	/**
+	 * Sets the listener for this event dispatcher.
+	 * If there are pending events in the queue they are immediately
+	 * dispatched if the lifecycle is active.
+	 *
+	 * @param listener The new event listener or null to invalidate the current listener.
+	 */
+	public void setListener(EventListener<T> listener) {
+		this.listener = listener;
+		dispatchPendingIfReady();
+	}
+
+	/**
+	 * Checks if the event listener is currently ready to receive an event.
+	 * This means that the lifecycle is in the state from which we dispatch and we have a listener.
+	 */
+	private boolean readyForEvent() {
+		return !destroyed && lifecycle.getState().isAtLeast(activeFrom) && listener != null;
+	}
+
+	/**
+	 * Dispatches the given event to the listener. Must be called on the UI thread.
+	 *
+	 * One shot dispatchers are released before the listener is called, so a listener registering
+	 * the same tag again for the next request gets a new dispatcher.
+	 *
+	 * @param event The event to dispatch.
+	 */
+	private void dispatchEvent(final T event) {
+		EventListener<T> listener = this.listener;
+		if (listener == null) {
+			throw new IllegalStateException("Tried to dispatch an event while the listener is null");
+		}
+		if (oneShot) {
+			release();
+		}
+		listener.onEvent(event);
+	}
+
+	/**
+	 * Dispatches pending events when the listener is ready to receive events.
+	 * Must be called on the UI thread.
+	 *
+	 * Readiness is checked again before every event, because the listener might deactivate or destroy the
+	 * lifecycle. Events the listener posts while we are ready are dispatched directly, all others are appended
+	 * to the pending events and dispatched after the ones already stored.
+	 */
+	private void dispatchPendingIfReady() {
+		if (readyForEvent()) {
+			if (log.isDebugEnabled() && !pendingEvents.isEmpty()) {
+				log.debug("dispatching {} pending events", pendingEvents.size());
+			}
+			while (readyForEvent() && !pendingEvents.isEmpty()) {
+				dispatchEvent(pendingEvents.poll());
+			}
+		}
+	}
+
+	@Override
+	public void postEvent(final T event) {
+		log.trace("post event {}", event);
+		if (scheduler.isDispatchThread()) {
+			postEventSync(event);
+		} else {
+			dispatchThreadQueue.post(event);
+		}
+	}
+
+	/**
+	 * Posts event on the current thread, basically a wrapper used by {@link #postEvent(Object)} to ensure we are
+	 * on the UI thread.
+	 */
+	private void postEventSync(T event) {
+		if (destroyed) {
+			log.debug("lifecylce already destroyed, discarding event silently");
+		} else if (readyForEvent()) {
+			log.debug("directly dispatching event {}", event);
+			dispatchEvent(event);
+		} else {
+			if (storeWhileInactive) {
+				log.debug("lifeycle not ready for event, storing event for later dispatch {}", event);
+				storeEvent(event);
+			} else {
+				log.debug("lifeycle not ready for event, discarding event silently {}", event);
+			}
+		}
+	}
+
+	/**
+	 * Stores the event for later dispatch and applies the overflow policy if the capacity is exhausted.
+	 * Events conflated with an already stored event never exhaust the capacity.
+	 */
+	private void storeEvent(T event) {
+		if (pendingEvents.replace(event)) {
+			return;
+		}
+
+		if (pendingEvents.size() < capacity) {
+			pendingEvents.add(event);
+			return;
+		}
+
+		switch (overflowPolicy) {
+			case DROP_OLDEST:
+				log.debug("capacity of {} exhausted, dropping oldest stored event", capacity);
+				pendingEvents.poll();
+				pendingEvents.add(event);
+				droppedEvents++;
+				break;
+			case DROP_NEWEST:
+				log.debug("capacity of {} exhausted, dropping event {}", capacity, event);
+				droppedEvents++;
+				break;
+			case KEEP_LATEST:
+				log.debug("capacity of {} exhausted, dropping all stored events", capacity);
+				droppedEvents += pendingEvents.size();
+				pendingEvents.clear();
+				pendingEvents.add(event);
+				break;
+			case FAIL_FAST:
+				throw new IllegalStateException("Capacity of " + capacity + " stored events exhausted");
+		}
+	}
+
+	/**
+	 * The number of events dropped because the capacity for stored events was exhausted.
+	 */
+	public long getDroppedEventCount() {
+		return droppedEvents;
+	}
+
+	@Override
+	public boolean isDestroyed() {
+		return destroyed;
+	}
+
+	@Override
+	public void addOnDestroyListener(OnDestroyListener<T> listener) {
+		this.onDestroyListeners.add(listener);
+	}
+
+	@Override
+	public void removeOnDestroyListener(OnDestroyListener<T> listener) {
+		this.onDestroyListeners.remove(listener);
+	}
+}
\ No newline at end of file
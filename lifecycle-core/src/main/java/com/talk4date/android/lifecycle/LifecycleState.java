@@ -0,0 +1,30 @@
+package com.talk4date.android.lifecycle;
+
+/**
+ * The ordered states of a lifecycle.
+ * A lifecycle is active in the highest state {@link #RESUMED}.
+ */
+public enum LifecycleState {
+
+	/**
+	 * The component is created, but not visible.
+	 */
+	CREATED,
+
+	/**
+	 * The component is visible, but not in the foreground.
+	 */
+	STARTED,
+
+	/**
+	 * The component is in the foreground, the lifecycle is active.
+	 */
+	RESUMED;
+
+	/**
+	 * @return true if this state is the same or higher than the given state.
+	 */
+	public boolean isAtLeast(LifecycleState state) {
+		return compareTo(state) >= 0;
+	}
+}
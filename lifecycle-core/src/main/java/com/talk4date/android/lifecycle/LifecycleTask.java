@@ -0,0 +1,20 @@
+package com.talk4date.android.lifecycle;
+
+/**
+ * Background work executed by a {@link LifecycleTaskExecutor}.
+ *
+ * @param <T> The type of the result.
+ */
+public interface LifecycleTask<T> {
+
+	/**
+	 * Executes the task on a background thread.
+	 * Long running tasks should check the token regularly and return early when it is cancelled,
+	 * the result of a cancelled task is discarded.
+	 *
+	 * @param token Cancelled when the lifecycle or the result receiver of the task is destroyed.
+	 * @return The result, posted to the result receiver.
+	 * @throws Exception Posted to the error receiver, if any.
+	 */
+	T execute(CancellationToken token) throws Exception;
+}
@@ -0,0 +1,387 @@
+package com.talk4date.android.lifecycle;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Executes {@link LifecycleTask}s on a bounded pool of background threads and delivers their results
+ * to event receivers, usually ones registered in the lifecycle of the task, so results are dispatched
+ * like all other events of the lifecycle.
+ *
+ * Tasks are scoped to a lifecycle:
+ * When the lifecycle or the result receiver is destroyed, the {@link CancellationToken} of the task is cancelled.
+ * Pending tasks are removed from the queue, running tasks should check the token and their result is discarded.
+ *
+ * Pending tasks of lifecycles in a higher state run first, so tasks of inactive lifecycles don't delay the tasks
+ * of the resumed screen. Tasks of lifecycles in the same state run in the order they were submitted.
+ * When the state of a lifecycle changes, all its pending tasks are requeued together in a single pass over the queue.
+ */
+public class LifecycleTaskExecutor {
+
+	private static final Logger log = LoggerFactory.getLogger(LifecycleTaskExecutor.class);
+
+	/**
+	 * Number of threads of the shared executor.
+	 */
+	public static final int DEFAULT_POOL_SIZE = Math.max(2, Math.min(4, Runtime.getRuntime().availableProcessors() - 1));
+
+	/**
+	 * Idle threads are stopped after this time.
+	 */
+	private static final long KEEP_ALIVE_SECONDS = 30;
+
+	private static LifecycleTaskExecutor instance;
+
+	private final ThreadPoolExecutor threadPool;
+
+	/**
+	 * The queue of the thread pool, ordered by the priority of the tasks.
+	 */
+	private final BlockingQueue<Runnable> queue;
+
+	/**
+	 * Unfinished tasks by lifecycle, guarded by this.
+	 * Priorities of pending tasks are only changed while holding the lock and while the tasks are not queued.
+	 */
+	private final Map<Lifecycle, LifecycleTasks> lifecycleTasks = new HashMap<>();
+
+	/**
+	 * Keeps tasks submitted in the same state in order.
+	 */
+	private final AtomicLong sequence = new AtomicLong();
+
+	/**
+	 * @param poolSize The maximum number of tasks executed at the same time.
+	 */
+	public LifecycleTaskExecutor(int poolSize) {
+		if (poolSize < 1) {
+			throw new IllegalArgumentException("Pool size must be at least 1, was " + poolSize);
+		}
+		// with an unbounded queue the pool never grows beyond the core size
+		this.queue = new PriorityBlockingQueue<>();
+		this.threadPool = new ThreadPoolExecutor(poolSize, poolSize, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+				queue, new TaskThreadFactory());
+		this.threadPool.allowCoreThreadTimeOut(true);
+	}
+
+	/**
+	 * Get the shared executor with {@link #DEFAULT_POOL_SIZE} threads.
+	 */
+	public static synchronized LifecycleTaskExecutor get() {
+		if (instance == null) {
+			instance = new LifecycleTaskExecutor(DEFAULT_POOL_SIZE);
+		}
+		return instance;
+	}
+
+	/**
+	 * Executes a task that is not scoped to a lifecycle, e.g. work shared by several lifecycles
+	 * with a {@link SingleFlight}. The task is only cancelled when the result receiver is destroyed
+	 * and runs with the priority of a resumed lifecycle.
+	 * Exceptions thrown by the task are logged.
+	 *
+	 * @param task The task to execute.
+	 * @param resultReceiver Receives the result, the task is cancelled when it is destroyed.
+	 * @return The token of the task, which can be used to cancel it.
+	 */
+	public <T> CancellationToken execute(LifecycleTask<T> task, EventReceiver<T> resultReceiver) {
+		if (task == null || resultReceiver == null) {
+			throw new IllegalArgumentException("Task and result receiver must not be null");
+		}
+
+		CancellationToken token = CancellationToken.of(resultReceiver);
+		new TaskRunner<>(null, task, token, resultReceiver, null).start();
+		return token;
+	}
+
+	/**
+	 * Executes the task in the background and posts the result to the receiver.
+	 * Exceptions thrown by the task are logged.
+	 *
+	 * @see #execute(Lifecycle, LifecycleTask, EventReceiver, EventReceiver)
+	 */
+	public <T> CancellationToken execute(Lifecycle lifecycle, LifecycleTask<T> task, EventReceiver<T> resultReceiver) {
+		return execute(lifecycle, task, resultReceiver, null);
+	}
+
+	/**
+	 * Executes the task in the background and posts the result to the receiver.
+	 *
+	 * @param lifecycle The lifecycle of the task, the task is cancelled when it is destroyed.
+	 * @param task The task to execute.
+	 * @param resultReceiver Receives the result, the task is cancelled when it is destroyed.
+	 * @param errorReceiver Receives exceptions thrown by the task, or null to log them.
+	 * @return The token of the task, which can be used to cancel it.
+	 */
+	public <T> CancellationToken execute(Lifecycle lifecycle, LifecycleTask<T> task, EventReceiver<T> resultReceiver,
+			EventReceiver<? super Exception> errorReceiver) {
+		if (lifecycle == null || task == null || resultReceiver == null) {
+			throw new IllegalArgumentException("Lifecycle, task and result receiver must not be null");
+		}
+
+		CancellationToken token = CancellationToken.of(resultReceiver);
+		if (lifecycle.isDestroyed()) {
+			log.debug("lifecycle already destroyed, discarding task {}", task);
+			token.cancel();
+			return token;
+		}
+
+		TaskRunner<T> runner = new TaskRunner<>(lifecycle, task, token, resultReceiver, errorReceiver);
+		runner.start();
+		return token;
+	}
+
+	/**
+	 * Stops all threads, pending tasks are cancelled and discarded.
+	 * No tasks can be executed afterwards, so the shared executor must not be shut down.
+	 */
+	public void shutdown() {
+		List<Runnable> pending;
+		synchronized (this) {
+			pending = threadPool.shutdownNow();
+		}
+		for (Runnable runnable : pending) {
+			TaskRunner<?> runner = (TaskRunner<?>) runnable;
+			runner.token.cancel();
+			runner.finish();
+		}
+	}
+
+	/**
+	 * Queues the task and adds it to the tasks of its lifecycle.
+	 */
+	private synchronized void enqueue(TaskRunner<?> runner) {
+		if (runner.lifecycle != null) {
+			LifecycleTasks tasks = lifecycleTasks.get(runner.lifecycle);
+			if (tasks == null) {
+				tasks = new LifecycleTasks(runner.lifecycle);
+				lifecycleTasks.put(runner.lifecycle, tasks);
+				runner.lifecycle.addStateChangeListener(tasks);
+				runner.lifecycle.addOnDestroyListener(tasks);
+			}
+			tasks.runners.add(runner);
+		}
+		threadPool.execute(runner);
+	}
+
+	/**
+	 * Removes the finished task from the tasks of its lifecycle,
+	 * and unsubscribes from the lifecycle when it was the last one.
+	 */
+	private synchronized void removeFromLifecycle(TaskRunner<?> runner) {
+		LifecycleTasks tasks = lifecycleTasks.get(runner.lifecycle);
+		if (tasks != null && tasks.runners.remove(runner) && tasks.runners.isEmpty()) {
+			lifecycleTasks.remove(runner.lifecycle);
+			runner.lifecycle.removeStateChangeListener(tasks);
+			runner.lifecycle.removeOnDestroyListener(tasks);
+		}
+	}
+
+	/**
+	 * Updates the priority of the pending tasks and restores the queue order with a single drain and refill,
+	 * instead of removing and requeueing every task on its own.
+	 */
+	private void requeue(LifecycleTasks tasks, LifecycleState state) {
+		synchronized (this) {
+			if (threadPool.isShutdown() || !tasks.hasPending()) {
+				return;
+			}
+
+			List<Runnable> queued = new ArrayList<>(queue.size());
+			queue.drainTo(queued);
+			for (TaskRunner<?> runner : tasks.runners) {
+				runner.priority = state.ordinal();
+			}
+			queue.addAll(queued);
+		}
+		// idle threads might have stopped while the queue was drained
+		threadPool.prestartCoreThread();
+	}
+
+	/**
+	 * The unfinished tasks of a lifecycle, keeps their priority up to date and cancels them when
+	 * the lifecycle is destroyed. Subscribed to the lifecycle while it has unfinished tasks.
+	 */
+	private class LifecycleTasks implements Lifecycle.StateChangeListener, Lifecycle.OnDestroyListener {
+
+		private final Lifecycle lifecycle;
+
+		/**
+		 * Tasks in submission order, guarded by the executor.
+		 */
+		private final Set<TaskRunner<?>> runners = new LinkedHashSet<>();
+
+		LifecycleTasks(Lifecycle lifecycle) {
+			this.lifecycle = lifecycle;
+		}
+
+		/**
+		 * True if a task was not yet taken from the queue, must be called while holding the executor lock.
+		 */
+		boolean hasPending() {
+			for (TaskRunner<?> runner : runners) {
+				if (!runner.started.get()) {
+					return true;
+				}
+			}
+			return false;
+		}
+
+		@Override
+		public void onStateChange(LifecycleState state) {
+			requeue(this, state);
+		}
+
+		@Override
+		public void onDestroy() {
+			List<TaskRunner<?>> destroyed;
+			synchronized (LifecycleTaskExecutor.this) {
+				destroyed = new ArrayList<>(runners);
+			}
+			log.debug("lifecycle {} destroyed, cancelling {} tasks", lifecycle, destroyed.size());
+			for (TaskRunner<?> runner : destroyed) {
+				runner.token.cancel();
+			}
+		}
+	}
+
+	/**
+	 * Runs a task with the priority of the state of its lifecycle.
+	 */
+	private class TaskRunner<T> implements Runnable, Comparable<TaskRunner<?>>, CancellationToken.OnCancelListener {
+
+		/**
+		 * The lifecycle of the task, null for tasks not scoped to a lifecycle.
+		 */
+		private final Lifecycle lifecycle;
+
+		private final LifecycleTask<T> task;
+
+		private final CancellationToken token;
+
+		private final EventReceiver<T> resultReceiver;
+
+		private final EventReceiver<? super Exception> errorReceiver;
+
+		private final long order = sequence.incrementAndGet();
+
+		/**
+		 * Ordinal of the lifecycle state, updated by {@link #requeue(LifecycleTasks, LifecycleState)}
+		 * while the task is pending.
+		 */
+		private volatile int priority;
+
+		/**
+		 * Set when the task was taken from the queue.
+		 */
+		private final AtomicBoolean started = new AtomicBoolean();
+
+		TaskRunner(Lifecycle lifecycle, LifecycleTask<T> task, CancellationToken token, EventReceiver<T> resultReceiver,
+				EventReceiver<? super Exception> errorReceiver) {
+			this.lifecycle = lifecycle;
+			this.task = task;
+			this.token = token;
+			this.resultReceiver = resultReceiver;
+			this.errorReceiver = errorReceiver;
+			this.priority = (lifecycle != null ? lifecycle.getState() : LifecycleState.RESUMED).ordinal();
+		}
+
+		void start() {
+			token.addOnCancelListener(this);
+			if (token.isCancelled()) {
+				finish();
+			} else {
+				enqueue(this);
+			}
+		}
+
+		@Override
+		public void run() {
+			if (!started.compareAndSet(false, true)) {
+				return;
+			}
+			if (token.isCancelled()) {
+				finish();
+				return;
+			}
+
+			try {
+				T result = task.execute(token);
+				if (token.isCancelled()) {
+					log.debug("task {} cancelled, discarding result", task);
+				} else {
+					resultReceiver.postEvent(result);
+				}
+			} catch (Exception e) {
+				if (token.isCancelled()) {
+					log.debug("task {} cancelled, discarding exception", task, e);
+				} else if (errorReceiver != null) {
+					errorReceiver.postEvent(e);
+				} else {
+					log.error("task {} failed", task, e);
+				}
+			} finally {
+				finish();
+			}
+		}
+
+		/**
+		 * Removes the task from its lifecycle and unsubscribes from the token once the task is done.
+		 */
+		private void finish() {
+			if (lifecycle != null) {
+				removeFromLifecycle(this);
+			}
+			token.detach();
+		}
+
+		@Override
+		public void onCancel() {
+			if (threadPool.remove(this)) {
+				log.debug("removed cancelled task {} from the queue", task);
+				finish();
+			}
+		}
+
+		/**
+		 * Higher priority first, then in submission order.
+		 */
+		@Override
+		public int compareTo(TaskRunner<?> other) {
+			if (priority != other.priority) {
+				return priority > other.priority ? -1 : 1;
+			}
+			return order < other.order ? -1 : (order == other.order ? 0 : 1);
+		}
+	}
+
+	/**
+	 * Creates named daemon threads, so the pool never keeps the process alive.
+	 */
+	private static class TaskThreadFactory implements ThreadFactory {
+
+		private final AtomicInteger count = new AtomicInteger();
+
+		@Override
+		public Thread newThread(Runnable runnable) {
+			Thread thread = new Thread(runnable, "lifecycle-task-" + count.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		}
+	}
+}
@@ -0,0 +1,86 @@
+package com.talk4date.android.lifecycle;
+
+/**
+ * Typed handle that identifies a listener in a lifecycle, the type safe replacement of String tags.
+ *
+ * A key is identified by its name. String tags are keys without a type, so registering by tag
+ * and by a key with the same name configures the same listener.
+ * A lifecycle rejects a key whose type differs from the type the listener was registered with.
+ * Create keys once and keep them in constants:
+ *
+ * <pre>
+ * private static final ListenerKey&lt;Integer&gt; RANDOM_NUMBER = ListenerKey.of("randomNumber", Integer.class);
+ * </pre>
+ *
+ * @param <T> The type of events of the listener.
+ */
+public final class ListenerKey<T> {
+
+	private final String name;
+
+	private final Class<T> type;
+
+	private ListenerKey(String name, Class<T> type) {
+		this.name = name;
+		this.type = type;
+	}
+
+	/**
+	 * Create a key with the given name and event type.
+	 *
+	 * @param name The unique name of the key.
+	 * @param type The type of events of the listener.
+	 */
+	public static <T> ListenerKey<T> of(String name, Class<T> type) {
+		if (name == null || type == null) {
+			throw new IllegalArgumentException("Name and type must not be null");
+		}
+		return new ListenerKey<>(name, type);
+	}
+
+	/**
+	 * Create an untyped key for a String tag.
+	 * The event type is not checked, like with the String tag methods of {@link Lifecycle}.
+	 *
+	 * @param tag The tag that identifies the listener.
+	 */
+	public static <T> ListenerKey<T> of(String tag) {
+		if (tag == null) {
+			throw new IllegalArgumentException("Tag must not be null");
+		}
+		return new ListenerKey<>(tag, null);
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * The type of events, null for keys of String tags.
+	 */
+	public Class<T> getType() {
+		return type;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) {
+			return true;
+		}
+		if (!(o instanceof ListenerKey)) {
+			return false;
+		}
+		ListenerKey<?> other = (ListenerKey<?>) o;
+		return name.equals(other.name) && type == other.type;
+	}
+
+	@Override
+	public int hashCode() {
+		return name.hashCode();
+	}
+
+	@Override
+	public String toString() {
+		return "ListenerKey { " + name + ": " + (type != null ? type.getName() : "untyped") + " }";
+	}
+}
@@ -0,0 +1,210 @@
+package com.talk4date.android.lifecycle;
+
+/**
+ * Options for a listener registered with {@link Lifecycle#registerListener(String, ListenerOptions, EventListener)}.
+ *
+ * Instances are immutable and can be shared between registrations.
+ * Options for events of a type can be used for listeners of all subtypes, options that are not conflated
+ * by a key extractor can be used for all listeners.
+ *
+ * @param <T> The type of events the options can be used for.
+ */
+public final class ListenerOptions<T> {
+
+	/**
+	 * Capacity used when events are stored without a limit.
+	 */
+	public static final int UNBOUNDED = Integer.MAX_VALUE;
+
+	private static final ListenerOptions<Object> DISCARD_WHILE_INACTIVE =
+			new ListenerOptions<>(false, 0, OverflowPolicy.DROP_NEWEST, null, LifecycleState.RESUMED, false);
+
+	private static final ListenerOptions<Object> STORE_WHILE_INACTIVE =
+			new ListenerOptions<>(true, UNBOUNDED, OverflowPolicy.FAIL_FAST, null, LifecycleState.RESUMED, false);
+
+	private static final ListenerOptions<Object> REQUEST =
+			new ListenerOptions<>(true, 1, OverflowPolicy.DROP_NEWEST, null, LifecycleState.RESUMED, true);
+
+	private final boolean storeWhileInactive;
+
+	private final int capacity;
+
+	private final OverflowPolicy overflowPolicy;
+
+	private final EventKeyExtractor<? super T> keyExtractor;
+
+	private final LifecycleState activeFrom;
+
+	private final boolean oneShot;
+
+	private ListenerOptions(boolean storeWhileInactive, int capacity, OverflowPolicy overflowPolicy,
+			EventKeyExtractor<? super T> keyExtractor, LifecycleState activeFrom, boolean oneShot) {
+		this.storeWhileInactive = storeWhileInactive;
+		this.capacity = capacity;
+		this.overflowPolicy = overflowPolicy;
+		this.keyExtractor = keyExtractor;
+		this.activeFrom = activeFrom;
+		this.oneShot = oneShot;
+	}
+
+	/**
+	 * Shares options without a key extractor between all event types.
+	 */
+	@SuppressWarnings("unchecked")
+	private static <T> ListenerOptions<T> shared(ListenerOptions<Object> options) {
+		// safe, because options without key extractor never touch the events
+		return (ListenerOptions<T>) (ListenerOptions<?>) options;
+	}
+
+	/**
+	 * Events posted while the lifecycle is inactive are discarded.
+	 */
+	public static <T> ListenerOptions<T> discardWhileInactive() {
+		return shared(DISCARD_WHILE_INACTIVE);
+	}
+
+	/**
+	 * Events posted while the lifecycle is inactive are stored without a limit
+	 * and dispatched as soon as the lifecycle becomes active again.
+	 */
+	public static <T> ListenerOptions<T> storeWhileInactive() {
+		return shared(STORE_WHILE_INACTIVE);
+	}
+
+	/**
+	 * Events posted while the lifecycle is inactive are stored up to the given capacity
+	 * and dispatched as soon as the lifecycle becomes active again.
+	 *
+	 * @param capacity The maximum number of stored events.
+	 * @param overflowPolicy What to do with events exceeding the capacity.
+	 */
+	public static <T> ListenerOptions<T> storeWhileInactive(int capacity, OverflowPolicy overflowPolicy) {
+		if (capacity < 1) {
+			throw new IllegalArgumentException("Capacity must be at least 1, was " + capacity);
+		}
+		if (overflowPolicy == null) {
+			throw new IllegalArgumentException("Overflow policy must not be null");
+		}
+		return new ListenerOptions<>(true, capacity, overflowPolicy, null, LifecycleState.RESUMED, false);
+	}
+
+	/**
+	 * Options for the receiver of a single response.
+	 * The first event is stored while the lifecycle is inactive, later events are dropped.
+	 * After the event is dispatched the event receiver is destroyed, like with {@link #oneShot()}.
+	 *
+	 * @see Lifecycle#registerOneShotListener(String, EventListener)
+	 */
+	public static <T> ListenerOptions<T> request() {
+		return shared(REQUEST);
+	}
+
+	/**
+	 * Options matching the legacy boolean flag of {@link Lifecycle#registerListener(String, boolean, EventListener)}.
+	 */
+	static <T> ListenerOptions<T> fromStoreWhileInactive(boolean storeWhileInactive) {
+		return shared(storeWhileInactive ? STORE_WHILE_INACTIVE : DISCARD_WHILE_INACTIVE);
+	}
+
+	/**
+	 * Returns options that conflate stored events by key.
+	 * While the lifecycle is inactive only the latest event per key is stored.
+	 * When the lifecycle becomes active the keys are dispatched in the order they were first stored.
+	 *
+	 * The capacity of these options limits the number of distinct keys.
+	 * Use this for state like events, where intermediate values are not interesting.
+	 *
+	 * The returned options can only be used for listeners of events the key extractor accepts.
+	 *
+	 * @param keyExtractor Extracts the key of an event.
+	 * @param <E> The type of events the key extractor accepts.
+	 * @throws IllegalStateException if these options do not store events.
+	 */
+	public <E extends T> ListenerOptions<E> conflatedBy(EventKeyExtractor<E> keyExtractor) {
+		if (!storeWhileInactive) {
+			throw new IllegalStateException("Only stored events can be conflated");
+		}
+		if (keyExtractor == null) {
+			throw new IllegalArgumentException("Key extractor must not be null");
+		}
+		return new ListenerOptions<>(true, capacity, overflowPolicy, keyExtractor, activeFrom, oneShot);
+	}
+
+	/**
+	 * Returns options that dispatch events to the listener as soon as the lifecycle reached the given state,
+	 * instead of waiting until it is {@link LifecycleState#RESUMED}.
+	 * For example with {@link LifecycleState#STARTED} events can be delivered before the first frame is drawn.
+	 *
+	 * While the lifecycle is in a lower state, events are stored or discarded like while it is inactive.
+	 *
+	 * @param state The lowest state in which events are dispatched.
+	 */
+	public ListenerOptions<T> activeFrom(LifecycleState state) {
+		if (state == null) {
+			throw new IllegalArgumentException("State must not be null");
+		}
+		return new ListenerOptions<>(storeWhileInactive, capacity, overflowPolicy, keyExtractor, state, oneShot);
+	}
+
+	/**
+	 * Returns options for a listener that only receives a single event.
+	 * After the first event is dispatched, the event receiver is destroyed and removed from the lifecycle,
+	 * like with {@link Lifecycle#unregisterListener(String)}.
+	 */
+	public ListenerOptions<T> oneShot() {
+		return new ListenerOptions<>(storeWhileInactive, capacity, overflowPolicy, keyExtractor, activeFrom, true);
+	}
+
+	/**
+	 * If events should be stored while the lifecycle is inactive.
+	 */
+	public boolean isStoreWhileInactive() {
+		return storeWhileInactive;
+	}
+
+	/**
+	 * The maximum number of stored events or {@link #UNBOUNDED}.
+	 */
+	public int getCapacity() {
+		return capacity;
+	}
+
+	/**
+	 * What happens with events exceeding the capacity.
+	 */
+	public OverflowPolicy getOverflowPolicy() {
+		return overflowPolicy;
+	}
+
+	/**
+	 * The key extractor used to conflate stored events or null if events are not conflated.
+	 */
+	public EventKeyExtractor<? super T> getKeyExtractor() {
+		return keyExtractor;
+	}
+
+	/**
+	 * The lowest lifecycle state in which events are dispatched to the listener.
+	 */
+	public LifecycleState getActiveFrom() {
+		return activeFrom;
+	}
+
+	/**
+	 * If the event receiver is destroyed after the first dispatched event.
+	 */
+	public boolean isOneShot() {
+		return oneShot;
+	}
+
+	@Override
+	public String toString() {
+		return "ListenerOptions { "
+				+ "storeWhileInactive: " + storeWhileInactive + ", "
+				+ "capacity: " + capacity + ", "
+				+ "overflowPolicy: " + overflowPolicy + ", "
+				+ "conflated: " + (keyExtractor != null) + ", "
+				+ "activeFrom: " + activeFrom + ", "
+				+ "oneShot: " + oneShot + " }";
+	}
+}
@@ -0,0 +1,116 @@
+package com.talk4date.android.lifecycle;
+
+import java.util.Arrays;
+
+/**
+ * Copy on write registry of listeners.
+ *
+ * Listeners are notified by iterating over an immutable snapshot array. Iterating allocates nothing,
+ * and listeners can add or remove listeners while they are notified. Listeners removed during a notification
+ * still receive the current notification, listeners added during a notification receive the next one.
+ *
+ * Adding and removing is synchronized and can be done from any thread.
+ *
+ * @param <T> The type of listeners.
+ */
+final class ListenerRegistry<T> {
+
+	private final T[] empty;
+
+	private volatile T[] listeners;
+
+	/**
+	 * @param empty An empty array of the listener type, used as initial snapshot.
+	 */
+	ListenerRegistry(T[] empty) {
+		this.empty = empty;
+		this.listeners = empty;
+	}
+
+	/**
+	 * Creates a registry for the on destroy listeners of an event receiver.
+	 */
+	@SuppressWarnings("unchecked")
+	static <T> ListenerRegistry<EventReceiver.OnDestroyListener<T>> forOnDestroyListeners() {
+		// arrays of a parameterized type can not be created, the empty array never holds a listener of another type
+		return new ListenerRegistry<>((EventReceiver.OnDestroyListener<T>[]) new EventReceiver.OnDestroyListener<?>[0]);
+	}
+
+	/**
+	 * Creates a registry of event receivers.
+	 */
+	@SuppressWarnings("unchecked")
+	static <T> ListenerRegistry<EventReceiver<T>> forEventReceivers() {
+		return new ListenerRegistry<>((EventReceiver<T>[]) new EventReceiver<?>[0]);
+	}
+
+	synchronized void add(T listener) {
+		T[] current = listeners;
+		T[] updated = Arrays.copyOf(current, current.length + 1);
+		updated[current.length] = listener;
+		listeners = updated;
+	}
+
+	/**
+	 * Adds the listener unless it is already registered.
+	 *
+	 * @return true if the listener was added.
+	 */
+	synchronized boolean addIfAbsent(T listener) {
+		for (T registered : listeners) {
+			if (registered.equals(listener)) {
+				return false;
+			}
+		}
+		add(listener);
+		return true;
+	}
+
+	/**
+	 * Removes the first occurrence of the listener.
+	 *
+	 * @return true if the listener was registered.
+	 */
+	synchronized boolean remove(T listener) {
+		T[] current = listeners;
+		int index = -1;
+		for (int i = 0; i < current.length; i++) {
+			if (current[i].equals(listener)) {
+				index = i;
+				break;
+			}
+		}
+		if (index < 0) {
+			return false;
+		}
+
+		if (current.length == 1) {
+			listeners = empty;
+		} else {
+			T[] updated = Arrays.copyOf(empty, current.length - 1);
+			System.arraycopy(current, 0, updated, 0, index);
+			System.arraycopy(current, index + 1, updated, index, current.length - index - 1);
+			listeners = updated;
+		}
+		return true;
+	}
+
+	synchronized void clear() {
+		listeners = empty;
+	}
+
+	/**
+	 * The currently registered listeners. The returned array must not be modified.
+	 */
+	T[] snapshot() {
+		return listeners;
+	}
+
+	boolean isEmpty() {
+		return listeners.length == 0;
+	}
+
+	int size() {
+		return listeners.length;
+	}
+}
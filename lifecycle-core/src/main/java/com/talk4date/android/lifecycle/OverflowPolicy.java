@@ -0,0 +1,36 @@
+package com.talk4date.android.lifecycle;
+
+/**
+ * Decides what happens when an event should be stored while the lifecycle is inactive,
+ * but the store already holds as many events as its capacity allows.
+ *
+ * @see ListenerOptions#storeWhileInactive(int, OverflowPolicy)
+ */
+public enum OverflowPolicy {
+
+	/**
+	 * The oldest stored event is dropped to make room for the new event.
+	 */
+	DROP_OLDEST,
+
+	/**
+	 * The new event is dropped, the stored events are kept.
+	 */
+	DROP_NEWEST,
+
+	/**
+	 * All stored events are dropped and only the new event is kept.
+	 */
+	KEEP_LATEST,
+
+	/**
+	 * An {@link IllegalStateException} is thrown on the dispatch thread.
+	 * Use this for events that must never be lost.
+	 *
+	 * Events are stored on the dispatch thread, so the exception is only thrown by
+	 * {@link EventReceiver#postEvent(Object)} for events posted on the dispatch thread.
+	 * For events posted from other threads the exception is thrown by the task handing the events over
+	 * to the dispatch thread, on Android it is uncaught and crashes the app like any other exception on the main thread.
+	 */
+	FAIL_FAST
+}
@@ -0,0 +1,234 @@
+package com.talk4date.android.lifecycle;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * De-duplicates concurrent asynchronous calls by key.
+ *
+ * The first request for a key starts the call, requests for the same key while the call is in flight
+ * only attach their event receiver. The result of the call is posted to all attached receivers.
+ *
+ * The call posts its result to a flight receiver, which is destroyed when the result arrived or when all
+ * attached receivers were destroyed while waiting. So calls using a {@link CancellationToken} of the flight
+ * receiver are cancelled when nobody waits for the result anymore.
+ *
+ * All methods can be called from any thread.
+ *
+ * @param <K> The type of the keys.
+ * @param <T> The type of the results.
+ */
+public class SingleFlight<K, T> {
+
+	private static final Logger log = LoggerFactory.getLogger(SingleFlight.class);
+
+	/**
+	 * Calls in flight by key, guarded by this.
+	 */
+	private final Map<K, Flight> flights = new HashMap<>();
+
+	/**
+	 * Attaches the receiver to the call in flight for the key, or starts a new call.
+	 * Receivers that are already destroyed or already attached to the call are ignored.
+	 *
+	 * @param key The key of the call.
+	 * @param receiver Receives the result of the call.
+	 * @param call Started when no call for the key is in flight.
+	 * @return true if a new call was started, false if the receiver was attached to a call in flight
+	 *         or was destroyed before the call could be started.
+	 */
+	public boolean request(K key, EventReceiver<T> receiver, Call<T> call) {
+		if (receiver.isDestroyed()) {
+			return false;
+		}
+
+		Flight flight;
+		boolean start;
+		synchronized (this) {
+			flight = flights.get(key);
+			start = flight == null;
+			if (start) {
+				flight = new Flight(key);
+				flights.put(key, flight);
+			} else if (flight.receivers.contains(receiver)) {
+				return false;
+			}
+			flight.receivers.add(receiver);
+			receiver.addOnDestroyListener(flight);
+		}
+		// checked after adding the listener, so a receiver destroyed in between on another thread is detached
+		if (receiver.isDestroyed()) {
+			flight.onDestroy(receiver);
+		}
+
+		if (!start) {
+			log.debug("attached to call in flight for {}", key);
+			return false;
+		}
+
+		if (flight.isFinished()) {
+			log.debug("receiver for {} destroyed before the call started, not starting it", key);
+			return false;
+		}
+
+		log.debug("starting call for {}", key);
+		try {
+			call.start(flight);
+		} catch (RuntimeException e) {
+			flight.abandon();
+			throw e;
+		}
+		return true;
+	}
+
+	/**
+	 * True if a call for the key is in flight.
+	 */
+	public synchronized boolean isInFlight(K key) {
+		return flights.containsKey(key);
+	}
+
+	/**
+	 * Starts an asynchronous call.
+	 *
+	 * @param <T> The type of the result.
+	 */
+	public static interface Call<T> {
+
+		/**
+		 * Starts the call, which posts its result to the given receiver.
+		 * Only the first posted event is used, later events are discarded.
+		 *
+		 * @param resultReceiver Receives the result, destroyed when nobody waits for the result anymore.
+		 */
+		void start(EventReceiver<T> resultReceiver);
+	}
+
+	/**
+	 * A call in flight, receives the result of the call and posts it to all attached receivers.
+	 */
+	private class Flight implements EventReceiver<T>, EventReceiver.OnDestroyListener<T> {
+
+		private final K key;
+
+		/**
+		 * The attached receivers, guarded by the single flight.
+		 */
+		private final List<EventReceiver<T>> receivers = new ArrayList<>();
+
+		/**
+		 * Set when the result arrived or the flight was abandoned, guarded by the single flight.
+		 */
+		private boolean done = false;
+
+		private volatile boolean destroyed = false;
+
+		private final ListenerRegistry<OnDestroyListener<T>> onDestroyListeners =
+				ListenerRegistry.forOnDestroyListeners();
+
+		Flight(K key) {
+			this.key = key;
+		}
+
+		@Override
+		public void postEvent(T result) {
+			List<EventReceiver<T>> waiting = finish();
+			if (waiting == null) {
+				log.debug("call for {} already finished, discarding result", key);
+				return;
+			}
+
+			log.debug("posting result for {} to {} receivers", key, waiting.size());
+			for (EventReceiver<T> receiver : waiting) {
+				receiver.postEvent(result);
+			}
+			destroy();
+		}
+
+		/**
+		 * Detaches a receiver destroyed while waiting.
+		 */
+		@Override
+		public void onDestroy(EventReceiver<T> receiver) {
+			boolean abandoned;
+			synchronized (SingleFlight.this) {
+				abandoned = receivers.remove(receiver) && receivers.isEmpty();
+			}
+			if (abandoned) {
+				log.debug("all receivers for {} destroyed, abandoning call", key);
+				abandon();
+			}
+		}
+
+		/**
+		 * True if the result arrived or the flight was abandoned.
+		 */
+		boolean isFinished() {
+			synchronized (SingleFlight.this) {
+				return done;
+			}
+		}
+
+		/**
+		 * Ends the flight without a result, cancelling the call.
+		 */
+		void abandon() {
+			if (finish() != null) {
+				destroy();
+			}
+		}
+
+		/**
+		 * Removes the flight and detaches all receivers.
+		 *
+		 * @return The receivers which were attached, null if the flight was already finished.
+		 */
+		private List<EventReceiver<T>> finish() {
+			List<EventReceiver<T>> waiting;
+			synchronized (SingleFlight.this) {
+				if (done) {
+					return null;
+				}
+				done = true;
+				if (flights.get(key) == this) {
+					flights.remove(key);
+				}
+				waiting = new ArrayList<>(receivers);
+				receivers.clear();
+			}
+
+			for (EventReceiver<T> receiver : waiting) {
+				receiver.removeOnDestroyListener(this);
+			}
+			return waiting;
+		}
+
+		private void destroy() {
+			destroyed = true;
+			for (OnDestroyListener<T> listener : onDestroyListeners.snapshot()) {
+				listener.onDestroy(this);
+			}
+			onDestroyListeners.clear();
+		}
+
+		@Override
+		public boolean isDestroyed() {
+			return destroyed;
+		}
+
+		@Override
+		public void addOnDestroyListener(OnDestroyListener<T> listener) {
+			onDestroyListeners.add(listener);
+		}
+
+		@Override
+		public void removeOnDestroyListener(OnDestroyListener<T> listener) {
+			onDestroyListeners.remove(listener);
+		}
+	}
+}
@@ -0,0 +1,147 @@
+package com.talk4date.android.lifecycle;
+
+import java.util.PriorityQueue;
+
+/**
+ * Deterministic dispatch scheduler with a virtual clock.
+ *
+ * The thread that creates the scheduler is the dispatch thread.
+ * Posted tasks only run when the dispatch thread calls {@link #runPending()} or advances the clock,
+ * tasks due at the same time run in the order they were posted.
+ *
+ * Tasks can be posted from any thread.
+ */
+public class VirtualTimeScheduler implements DispatchScheduler {
+
+	private final Thread dispatchThread = Thread.currentThread();
+
+	private final PriorityQueue<ScheduledTask> tasks = new PriorityQueue<>();
+
+	/**
+	 * Current virtual time in milliseconds.
+	 */
+	private long now = 0;
+
+	/**
+	 * Sequence number to keep the posting order of tasks due at the same time.
+	 */
+	private long lastSequence = 0;
+
+	@Override
+	public boolean isDispatchThread() {
+		return Thread.currentThread() == dispatchThread;
+	}
+
+	@Override
+	public void post(Runnable task) {
+		postDelayed(task, 0);
+	}
+
+	@Override
+	public synchronized void postDelayed(Runnable task, long delayMillis) {
+		tasks.add(new ScheduledTask(task, now + Math.max(0, delayMillis), ++lastSequence));
+	}
+
+	/**
+	 * The current virtual time in milliseconds.
+	 */
+	public synchronized long now() {
+		return now;
+	}
+
+	/**
+	 * Runs all tasks that are due at the current virtual time,
+	 * including tasks that get posted without delay while running them.
+	 *
+	 * @return The number of tasks run.
+	 */
+	public int runPending() {
+		checkDispatchThread();
+		int count = 0;
+		Runnable task;
+		while ((task = pollDue()) != null) {
+			task.run();
+			count++;
+		}
+		return count;
+	}
+
+	/**
+	 * Advances the virtual clock by the given time and runs all tasks that get due, in order of their due time.
+	 *
+	 * @return The number of tasks run.
+	 */
+	public int advanceBy(long millis) {
+		checkDispatchThread();
+		long target;
+		synchronized (this) {
+			target = now + millis;
+		}
+
+		int count = runPending();
+		ScheduledTask next;
+		while ((next = peekUntil(target)) != null) {
+			synchronized (this) {
+				now = next.dueTime;
+			}
+			count += runPending();
+		}
+
+		synchronized (this) {
+			now = target;
+		}
+		return count + runPending();
+	}
+
+	/**
+	 * The number of tasks that did not run yet.
+	 */
+	public synchronized int pendingCount() {
+		return tasks.size();
+	}
+
+	private synchronized Runnable pollDue() {
+		ScheduledTask next = tasks.peek();
+		if (next == null || next.dueTime > now) {
+			return null;
+		}
+		return tasks.poll().task;
+	}
+
+	private synchronized ScheduledTask peekUntil(long target) {
+		ScheduledTask next = tasks.peek();
+		if (next == null || next.dueTime > target) {
+			return null;
+		}
+		return next;
+	}
+
+	private void checkDispatchThread() {
+		if (!isDispatchThread()) {
+			throw new IllegalStateException("Tasks must be run on the thread that created the scheduler");
+		}
+	}
+
+	private static class ScheduledTask implements Comparable<ScheduledTask> {
+
+		final Runnable task;
+
+		final long dueTime;
+
+		final long sequence;
+
+		ScheduledTask(Runnable task, long dueTime, long sequence) {
+			this.task = task;
+			this.dueTime = dueTime;
+			this.sequence = sequence;
+		}
+
+		@Override
+		public int compareTo(ScheduledTask other) {
+			if (dueTime != other.dueTime) {
+				return dueTime < other.dueTime ? -1 : 1;
+			}
+			return sequence < other.sequence ? -1 : (sequence == other.sequence ? 0 : 1);
+		}
+	}
+}
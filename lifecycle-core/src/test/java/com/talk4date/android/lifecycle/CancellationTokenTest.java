@@ -0,0 +1,114 @@
+package com.talk4date.android.lifecycle;
+
+import org.junit.Test;
+
+import java.util.concurrent.CancellationException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class CancellationTokenTest {
+
+	@Test
+	public void cancelNotifiesListenersOnce() {
+		CancellationToken token = new CancellationToken();
+		CountingListener listener = new CountingListener();
+		token.addOnCancelListener(listener);
+
+		token.cancel();
+		token.cancel();
+
+		assertTrue(token.isCancelled());
+		assertEquals(1, listener.calls);
+	}
+
+	@Test
+	public void listenerAddedAfterCancelIsCalledImmediately() {
+		CancellationToken token = new CancellationToken();
+		token.cancel();
+
+		CountingListener listener = new CountingListener();
+		token.addOnCancelListener(listener);
+
+		assertEquals(1, listener.calls);
+	}
+
+	@Test
+	public void removedListenerIsNotCalled() {
+		CancellationToken token = new CancellationToken();
+		CountingListener listener = new CountingListener();
+		token.addOnCancelListener(listener);
+		token.removeOnCancelListener(listener);
+
+		token.cancel();
+
+		assertEquals(0, listener.calls);
+	}
+
+	@Test(expected = CancellationException.class)
+	public void throwIfCancelled() {
+		CancellationToken token = new CancellationToken();
+		token.throwIfCancelled();
+		token.cancel();
+		token.throwIfCancelled();
+	}
+
+	@Test
+	public void cancelledWhenReceiverIsDestroyed() {
+		TestLifecycle lifecycle = new TestLifecycle();
+		CancellationToken token = CancellationToken.of(lifecycle.registerListener("tag", false, new RecordingListener<String>()));
+		CountingListener listener = new CountingListener();
+		token.addOnCancelListener(listener);
+		assertFalse(token.isCancelled());
+
+		lifecycle.destroy();
+
+		assertTrue(token.isCancelled());
+		assertEquals(1, listener.calls);
+	}
+
+	@Test
+	public void cancelledWhenOneShotReceiverGotItsEvent() {
+		TestLifecycle lifecycle = TestLifecycle.resumed();
+		EventReceiver<String> receiver = lifecycle.registerOneShotListener("tag", new RecordingListener<String>());
+		CancellationToken token = CancellationToken.of(receiver);
+
+		receiver.postEvent("a");
+
+		assertTrue(token.isCancelled());
+	}
+
+	@Test
+	public void tokenOfDestroyedReceiverIsCancelled() {
+		TestLifecycle lifecycle = new TestLifecycle();
+		EventReceiver<String> receiver = lifecycle.registerListener("tag", false, new RecordingListener<String>());
+		lifecycle.unregisterListener("tag");
+
+		assertTrue(CancellationToken.of(receiver).isCancelled());
+	}
+
+	@Test
+	public void detachedTokenIsNotCancelled() {
+		TestLifecycle lifecycle = new TestLifecycle();
+		CancellationToken token = CancellationToken.of(lifecycle.registerListener("tag", false, new RecordingListener<String>()));
+		CountingListener listener = new CountingListener();
+		token.addOnCancelListener(listener);
+
+		token.detach();
+		lifecycle.destroy();
+
+		assertFalse(token.isCancelled());
+		assertEquals(0, listener.calls);
+	}
+
+	private static class CountingListener implements CancellationToken.OnCancelListener {
+
+		int calls = 0;
+
+		@Override
+		public void onCancel() {
+			calls++;
+		}
+	}
+}
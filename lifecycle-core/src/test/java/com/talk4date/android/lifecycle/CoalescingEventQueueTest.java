@@ -0,0 +1,153 @@
+package com.talk4date.android.lifecycle;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class CoalescingEventQueueTest {
+
+	private static final int PRODUCERS = 4;
+
+	private static final int EVENTS_PER_PRODUCER = 5000;
+
+	@Test
+	public void deliversBurstWithFewTasks() {
+		VirtualTimeScheduler scheduler = new VirtualTimeScheduler();
+		RecordingConsumer consumer = new RecordingConsumer();
+		CoalescingEventQueue<Integer> queue = new CoalescingEventQueue<>(scheduler, consumer);
+
+		for (int i = 0; i < 1000; i++) {
+			queue.post(i);
+		}
+
+		// batches of MAX_EVENTS_PER_DRAIN events
+		assertEquals(4, scheduler.runPending());
+		assertEquals(1000, consumer.events.size());
+		assertEquals(999, (int) consumer.events.get(999));
+	}
+
+	@Test
+	public void coalescesEventsOfConcurrentProducers() throws InterruptedException {
+		VirtualTimeScheduler scheduler = new VirtualTimeScheduler();
+		final List<Integer> received = new ArrayList<>();
+		// a consumer slower than the producers, like a listener updating the UI
+		final CoalescingEventQueue<Integer> queue = new CoalescingEventQueue<>(scheduler, new Consumer<Integer>() {
+			@Override
+			public void consume(Integer event) {
+				received.add(event);
+				busyWait(2000);
+			}
+		});
+		final CountDownLatch start = new CountDownLatch(1);
+		final CountDownLatch finished = new CountDownLatch(PRODUCERS);
+
+		for (int p = 0; p < PRODUCERS; p++) {
+			new Thread(new Runnable() {
+				@Override
+				public void run() {
+					try {
+						start.await();
+						for (int i = 0; i < EVENTS_PER_PRODUCER; i++) {
+							queue.post(i);
+							// keep posting for as long as the dispatch thread drains
+							busyWait(4000);
+						}
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					} finally {
+						finished.countDown();
+					}
+				}
+			}).start();
+		}
+
+		start.countDown();
+		int tasks = 0;
+		// the dispatch thread keeps draining while the producers are still posting
+		while (finished.getCount() > 0) {
+			tasks += scheduler.runPending();
+		}
+		tasks += scheduler.runPending();
+
+		int events = PRODUCERS * EVENTS_PER_PRODUCER;
+		assertEquals(events, received.size());
+		assertTrue("Expected far fewer tasks than events, but got " + tasks + " tasks", tasks * 10 < events);
+	}
+
+	@Test
+	public void deliversEventsPostedWhileDraining() {
+		VirtualTimeScheduler scheduler = new VirtualTimeScheduler();
+		final List<Integer> received = new ArrayList<>();
+		final List<CoalescingEventQueue<Integer>> queues = new ArrayList<>();
+		CoalescingEventQueue<Integer> queue = new CoalescingEventQueue<>(scheduler, new Consumer<Integer>() {
+			@Override
+			public void consume(Integer event) {
+				received.add(event);
+				if (event == 1) {
+					queues.get(0).post(3);
+				}
+			}
+		});
+		queues.add(queue);
+
+		queue.post(1);
+		queue.post(2);
+
+		assertEquals(1, scheduler.runPending());
+		assertEquals(Arrays.asList(1, 2, 3), received);
+	}
+
+	@Test
+	public void continuesAfterConsumerThrows() {
+		VirtualTimeScheduler scheduler = new VirtualTimeScheduler();
+		final List<Integer> received = new ArrayList<>();
+		CoalescingEventQueue<Integer> queue = new CoalescingEventQueue<>(scheduler, new Consumer<Integer>() {
+			@Override
+			public void consume(Integer event) {
+				if (event == 1) {
+					throw new IllegalStateException("failed");
+				}
+				received.add(event);
+			}
+		});
+
+		queue.post(1);
+		queue.post(2);
+		try {
+			scheduler.runPending();
+		} catch (IllegalStateException e) {
+			// expected
+		}
+		scheduler.runPending();
+		queue.post(3);
+		scheduler.runPending();
+
+		assertEquals(Arrays.asList(2, 3), received);
+	}
+
+	private static void busyWait(long nanos) {
+		long until = System.nanoTime() + nanos;
+		while (System.nanoTime() < until) {
+			// spin, sleeping is far too coarse
+		}
+	}
+
+	/**
+	 * Consumer recording all events, only called on the dispatch thread.
+	 */
+	private static class RecordingConsumer implements Consumer<Integer> {
+
+		final List<Integer> events = new ArrayList<>();
+
+		@Override
+		public void consume(Integer event) {
+			events.add(event);
+		}
+	}
+}
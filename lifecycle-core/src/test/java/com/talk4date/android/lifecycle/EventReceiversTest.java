@@ -0,0 +1,67 @@
+package com.talk4date.android.lifecycle;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class EventReceiversTest {
+
+	@Test
+	public void postsToOneShotReceivers() {
+		TestLifecycle lifecycle = TestLifecycle.resumed();
+		RecordingListener<String> first = new RecordingListener<>();
+		RecordingListener<String> second = new RecordingListener<>();
+		EventReceiver<String> firstReceiver = lifecycle.registerOneShotListener("first", first);
+		EventReceiver<String> secondReceiver = lifecycle.registerOneShotListener("second", second);
+
+		EventReceivers<String> receivers = new EventReceivers<>();
+		receivers.registerEventReceiver(firstReceiver);
+		receivers.registerEventReceiver(secondReceiver);
+
+		receivers.postEvent("a");
+		receivers.postEvent("b");
+
+		assertEquals(Arrays.asList("a"), first.events);
+		assertEquals(Arrays.asList("a"), second.events);
+		assertTrue(firstReceiver.isDestroyed());
+		assertTrue(secondReceiver.isDestroyed());
+	}
+
+	@Test
+	public void postsWhileListenerUnregistersItself() {
+		final TestLifecycle lifecycle = TestLifecycle.resumed();
+		final RecordingListener<String> other = new RecordingListener<>();
+		EventListener<String> unregistering = new EventListener<String>() {
+			@Override
+			public void onEvent(String event) {
+				lifecycle.unregisterListener("unregistering");
+			}
+		};
+
+		EventReceivers<String> receivers = new EventReceivers<>();
+		receivers.registerEventReceiver(lifecycle.registerListener("unregistering", false, unregistering));
+		receivers.registerEventReceiver(lifecycle.registerListener("other", false, other));
+
+		receivers.postEvent("a");
+		receivers.postEvent("b");
+
+		assertEquals(Arrays.asList("a", "b"), other.events);
+	}
+
+	@Test
+	public void destroyedReceiversAreRemoved() {
+		TestLifecycle lifecycle = TestLifecycle.resumed();
+		RecordingListener<String> listener = new RecordingListener<>();
+		EventReceivers<String> receivers = new EventReceivers<>();
+		receivers.registerEventReceiver(lifecycle.registerListener("tag", false, listener));
+
+		lifecycle.unregisterListener("tag");
+		lifecycle.registerListener("tag", false, listener);
+		receivers.postEvent("a");
+
+		assertTrue(listener.events.isEmpty());
+	}
+}
@@ -0,0 +1,57 @@
+package com.talk4date.android.lifecycle;
+
+import org.junit.Test;
+
+import java.util.NoSuchElementException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class EventRingBufferTest {
+
+	@Test
+	public void keepsOrderWhenGrowingWrappedBuffer() {
+		EventRingBuffer<Integer> buffer = new EventRingBuffer<>(2, 8);
+		buffer.add(1);
+		buffer.add(2);
+		assertEquals(1, (int) buffer.poll());
+		buffer.add(3);
+		buffer.add(4);
+
+		assertEquals(3, buffer.size());
+		assertEquals(2, (int) buffer.poll());
+		assertEquals(3, (int) buffer.poll());
+		assertEquals(4, (int) buffer.poll());
+		assertTrue(buffer.isEmpty());
+	}
+
+	@Test
+	public void growsUpToMaxCapacity() {
+		EventRingBuffer<Integer> buffer = new EventRingBuffer<>(EventRingBuffer.DEFAULT_CAPACITY, 10);
+		for (int i = 0; i < 10; i++) {
+			buffer.add(i);
+		}
+
+		assertEquals(10, buffer.capacity());
+		assertEquals(10, buffer.size());
+	}
+
+	@Test
+	public void startsWithMaxCapacityWhenSmallerThanInitialCapacity() {
+		assertEquals(3, new EventRingBuffer<Integer>(EventRingBuffer.DEFAULT_CAPACITY, 3).capacity());
+		assertEquals(1, new EventRingBuffer<Integer>(EventRingBuffer.DEFAULT_CAPACITY, 0).capacity());
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void addToFullBufferThrows() {
+		EventRingBuffer<Integer> buffer = new EventRingBuffer<>(1, 2);
+		buffer.add(1);
+		buffer.add(2);
+		buffer.add(3);
+	}
+
+	@Test(expected = NoSuchElementException.class)
+	public void pollEmptyBufferThrows() {
+		new EventRingBuffer<Integer>().poll();
+	}
+}
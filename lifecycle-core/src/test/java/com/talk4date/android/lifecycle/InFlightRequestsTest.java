@@ -0,0 +1,93 @@
+package com.talk4date.android.lifecycle;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class InFlightRequestsTest {
+
+	@Test
+	public void attachReturnsFalseWithoutPendingRequest() {
+		TestLifecycle session = TestLifecycle.resumed();
+
+		assertFalse(session.getInFlightRequests().attach("tag", new RecordingListener<Integer>()));
+	}
+
+	@Test
+	public void deliversResultAndEndsRequest() {
+		TestLifecycle session = TestLifecycle.resumed();
+		InFlightRequests requests = session.getInFlightRequests();
+		RecordingListener<Integer> listener = new RecordingListener<>();
+
+		EventReceiver<Integer> request = requests.start("tag", listener);
+		assertTrue(requests.isPending("tag"));
+
+		request.postEvent(7);
+
+		assertEquals(Arrays.asList(7), listener.events);
+		assertFalse(requests.isPending("tag"));
+		assertTrue(request.isDestroyed());
+	}
+
+	@Test
+	public void keepsResultArrivingWhilePausedForRecreatedInstance() {
+		TestLifecycle session = TestLifecycle.resumed();
+		InFlightRequests requests = session.getInFlightRequests();
+		RecordingListener<Integer> oldInstance = new RecordingListener<>();
+		RecordingListener<Integer> newInstance = new RecordingListener<>();
+
+		EventReceiver<Integer> request = requests.start("tag", oldInstance);
+		session.setState(LifecycleState.CREATED);
+		request.postEvent(7);
+
+		// configuration change: the old instance is gone, the new one reconnects
+		session.invalidateEventListeners();
+		assertTrue(requests.isPending("tag"));
+		assertTrue(requests.attach("tag", newInstance));
+		session.setState(LifecycleState.RESUMED);
+
+		assertTrue(oldInstance.events.isEmpty());
+		assertEquals(Arrays.asList(7), newInstance.events);
+		assertFalse(requests.isPending("tag"));
+	}
+
+	@Test
+	public void startWhilePendingReturnsPendingRequest() {
+		TestLifecycle session = TestLifecycle.resumed();
+		InFlightRequests requests = session.getInFlightRequests();
+
+		EventReceiver<Integer> first = requests.start("tag", new RecordingListener<Integer>());
+		EventReceiver<Integer> second = requests.start("tag", new RecordingListener<Integer>());
+
+		assertSame(first, second);
+	}
+
+	@Test
+	public void destroyingLifecycleCancelsRequests() {
+		TestLifecycle session = TestLifecycle.resumed();
+		InFlightRequests requests = session.getInFlightRequests();
+		CancellationToken token = CancellationToken.of(requests.start("tag", new RecordingListener<Integer>()));
+
+		session.destroy();
+
+		assertTrue(token.isCancelled());
+		assertFalse(requests.isPending("tag"));
+	}
+
+	@Test
+	public void startAfterDestroyReturnsDestroyedReceiver() {
+		TestLifecycle session = TestLifecycle.resumed();
+		InFlightRequests requests = session.getInFlightRequests();
+		session.destroy();
+
+		EventReceiver<Integer> request = requests.start("tag", new RecordingListener<Integer>());
+
+		assertTrue(request.isDestroyed());
+		assertFalse(requests.isPending("tag"));
+	}
+}
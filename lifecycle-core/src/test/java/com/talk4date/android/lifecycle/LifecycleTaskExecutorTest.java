@@ -0,0 +1,134 @@
+package com.talk4date.android.lifecycle;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class LifecycleTaskExecutorTest {
+
+	private LifecycleTaskExecutor executor;
+
+	private final List<String> executed = Collections.synchronizedList(new ArrayList<String>());
+
+	private final CountDownLatch blocking = new CountDownLatch(1);
+
+	private final CountDownLatch unblock = new CountDownLatch(1);
+
+	private int receiverCount = 0;
+
+	@Before
+	public void setUp() throws InterruptedException {
+		executor = new LifecycleTaskExecutor(1);
+		// occupy the only thread, so all following tasks stay queued
+		executor.execute(new LifecycleTask<String>() {
+			@Override
+			public String execute(CancellationToken token) throws Exception {
+				blocking.countDown();
+				unblock.await();
+				return "blocker";
+			}
+		}, receiver(TestLifecycle.resumed()));
+		assertTrue(blocking.await(5, TimeUnit.SECONDS));
+	}
+
+	@After
+	public void tearDown() {
+		unblock.countDown();
+		executor.shutdown();
+	}
+
+	@Test
+	public void runsTasksOfHigherStateFirst() throws InterruptedException {
+		TestLifecycle created = new TestLifecycle();
+		TestLifecycle resumed = TestLifecycle.resumed();
+		CountDownLatch done = new CountDownLatch(3);
+
+		submit(created, "created", done);
+		submit(resumed, "resumed1", done);
+		submit(resumed, "resumed2", done);
+		unblock.countDown();
+
+		assertTrue(done.await(5, TimeUnit.SECONDS));
+		assertEquals(Arrays.asList("resumed1", "resumed2", "created"), executed);
+	}
+
+	@Test
+	public void requeuesPendingTasksWhenStateChanges() throws InterruptedException {
+		TestLifecycle first = new TestLifecycle();
+		TestLifecycle second = new TestLifecycle();
+		second.setState(LifecycleState.STARTED);
+		CountDownLatch done = new CountDownLatch(4);
+
+		submit(second, "second", done);
+		submit(first, "first1", done);
+		submit(first, "first2", done);
+		submit(first, "first3", done);
+		first.setState(LifecycleState.RESUMED);
+		unblock.countDown();
+
+		assertTrue(done.await(5, TimeUnit.SECONDS));
+		assertEquals(Arrays.asList("first1", "first2", "first3", "second"), executed);
+	}
+
+	@Test
+	public void cancelsPendingTasksWhenLifecycleIsDestroyed() throws InterruptedException {
+		TestLifecycle destroyed = TestLifecycle.resumed();
+		TestLifecycle other = TestLifecycle.resumed();
+		CountDownLatch done = new CountDownLatch(1);
+
+		CancellationToken token = submit(destroyed, "destroyed", done);
+		destroyed.destroy();
+		assertTrue(token.isCancelled());
+
+		submit(other, "other", done);
+		unblock.countDown();
+
+		assertTrue(done.await(5, TimeUnit.SECONDS));
+		assertEquals(Arrays.asList("other"), executed);
+	}
+
+	@Test
+	public void cancelsTaskOfDestroyedLifecycle() {
+		TestLifecycle lifecycle = TestLifecycle.resumed();
+		lifecycle.destroy();
+
+		CancellationToken token = submit(lifecycle, "destroyed", new CountDownLatch(1));
+
+		assertTrue(token.isCancelled());
+	}
+
+	@Test
+	public void shutdownCancelsPendingTasks() {
+		CancellationToken token = submit(TestLifecycle.resumed(), "pending", new CountDownLatch(1));
+
+		executor.shutdown();
+
+		assertTrue(token.isCancelled());
+		assertTrue(executed.isEmpty());
+	}
+
+	private CancellationToken submit(Lifecycle lifecycle, final String name, final CountDownLatch done) {
+		return executor.execute(lifecycle, new LifecycleTask<String>() {
+			@Override
+			public String execute(CancellationToken token) {
+				executed.add(name);
+				done.countDown();
+				return name;
+			}
+		}, receiver(lifecycle));
+	}
+
+	private EventReceiver<String> receiver(Lifecycle lifecycle) {
+		return lifecycle.registerListener("receiver" + receiverCount++, false, new RecordingListener<String>());
+	}
+}
@@ -0,0 +1,66 @@
+package com.talk4date.android.lifecycle;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class ListenerKeyTest {
+
+	@Test
+	public void tagAndKeyOfSameNameShareReceiver() {
+		TestLifecycle lifecycle = TestLifecycle.resumed();
+		ListenerKey<String> key = ListenerKey.of("shared", String.class);
+		RecordingListener<String> tagListener = new RecordingListener<>();
+		RecordingListener<String> keyListener = new RecordingListener<>();
+
+		EventReceiver<String> byTag = lifecycle.registerListener("shared", false, tagListener);
+		EventReceiver<String> byKey = lifecycle.registerListener(key, false, keyListener);
+		byTag.postEvent("a");
+
+		assertSame(byTag, byKey);
+		assertTrue(tagListener.events.isEmpty());
+		assertEquals(Arrays.asList("a"), keyListener.events);
+		assertTrue(lifecycle.unregisterListener("shared"));
+		assertFalse(lifecycle.unregisterListener(key));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void keyOfOtherTypeIsRejected() {
+		TestLifecycle lifecycle = new TestLifecycle();
+		lifecycle.registerListener(ListenerKey.of("typed", String.class), false, new RecordingListener<String>());
+
+		lifecycle.registerListener(ListenerKey.of("typed", Integer.class), false, new RecordingListener<Integer>());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void firstTypedKeyDefinesTypeOfTaggedListener() {
+		TestLifecycle lifecycle = new TestLifecycle();
+		lifecycle.registerListener("typed", false, new RecordingListener<String>());
+		lifecycle.registerListener(ListenerKey.of("typed", String.class), false, new RecordingListener<String>());
+
+		lifecycle.registerListener(ListenerKey.of("typed", Integer.class), false, new RecordingListener<Integer>());
+	}
+
+	@Test
+	public void keyTypeIsOnlyCheckedPerLifecycle() {
+		TestLifecycle first = new TestLifecycle();
+		TestLifecycle second = new TestLifecycle();
+
+		first.registerListener(ListenerKey.of("perLifecycle", String.class), false, new RecordingListener<String>());
+		second.registerListener(ListenerKey.of("perLifecycle", Integer.class), false, new RecordingListener<Integer>());
+	}
+
+	@Test
+	public void keysAreEqualByNameAndType() {
+		assertEquals(ListenerKey.of("key", String.class), ListenerKey.of("key", String.class));
+		assertEquals(ListenerKey.of("key", String.class).hashCode(), ListenerKey.of("key", String.class).hashCode());
+		assertNotEquals(ListenerKey.of("key", String.class), ListenerKey.of("key", Integer.class));
+		assertNotEquals(ListenerKey.of("key", String.class), ListenerKey.of("key"));
+	}
+}
@@ -0,0 +1,78 @@
+package com.talk4date.android.lifecycle;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+
+public class ListenerOptionsTest {
+
+	private static final EventKeyExtractor<String> FIRST_LETTER = new EventKeyExtractor<String>() {
+		@Override
+		public Object keyOf(String event) {
+			return event.charAt(0);
+		}
+	};
+
+	@Test
+	public void conflatesStoredEventsByKeyInOrderOfFirstStore() {
+		TestLifecycle lifecycle = new TestLifecycle();
+		RecordingListener<String> listener = new RecordingListener<>();
+		EventReceiver<String> receiver = lifecycle.registerListener("tag",
+				ListenerOptions.storeWhileInactive().conflatedBy(FIRST_LETTER), listener);
+
+		receiver.postEvent("a1");
+		receiver.postEvent("b1");
+		receiver.postEvent("a2");
+		lifecycle.setActive(true);
+
+		assertEquals(Arrays.asList("a2", "b1"), listener.events);
+	}
+
+	@Test
+	public void keyExtractorOfSupertypeCanBeUsedForListenersOfSubtype() {
+		TestLifecycle lifecycle = new TestLifecycle();
+		RecordingListener<Integer> listener = new RecordingListener<>();
+		EventKeyExtractor<Number> parity = new EventKeyExtractor<Number>() {
+			@Override
+			public Object keyOf(Number event) {
+				return event.intValue() % 2;
+			}
+		};
+		ListenerOptions<Number> options = ListenerOptions.storeWhileInactive().conflatedBy(parity);
+		EventReceiver<Integer> receiver = lifecycle.registerListener("tag", options, listener);
+
+		receiver.postEvent(1);
+		receiver.postEvent(2);
+		receiver.postEvent(3);
+		lifecycle.setActive(true);
+
+		assertEquals(Arrays.asList(3, 2), listener.events);
+	}
+
+	@Test
+	public void keepsKeyExtractorWhenChangingOtherOptions() {
+		TestLifecycle lifecycle = new TestLifecycle();
+		RecordingListener<String> listener = new RecordingListener<>();
+		ListenerOptions<String> options =
+				ListenerOptions.storeWhileInactive().conflatedBy(FIRST_LETTER).activeFrom(LifecycleState.STARTED);
+		EventReceiver<String> receiver = lifecycle.registerListener("tag", options, listener);
+
+		receiver.postEvent("a1");
+		receiver.postEvent("a2");
+		lifecycle.setState(LifecycleState.STARTED);
+
+		assertEquals(Arrays.asList("a2"), listener.events);
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void onlyStoredEventsCanBeConflated() {
+		ListenerOptions.discardWhileInactive().conflatedBy(FIRST_LETTER);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void keyExtractorMustNotBeNull() {
+		ListenerOptions.storeWhileInactive().conflatedBy(null);
+	}
+}
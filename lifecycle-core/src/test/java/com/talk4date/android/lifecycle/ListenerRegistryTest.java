@@ -0,0 +1,90 @@
+package com.talk4date.android.lifecycle;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class ListenerRegistryTest {
+
+	private static final String[] EMPTY = new String[0];
+
+	@Test
+	public void snapshotIsNotChangedByLaterUpdates() {
+		ListenerRegistry<String> registry = new ListenerRegistry<>(EMPTY);
+		registry.add("a");
+		registry.add("b");
+
+		String[] snapshot = registry.snapshot();
+		registry.remove("a");
+		registry.add("c");
+
+		assertArrayEquals(new String[] {"a", "b"}, snapshot);
+		assertArrayEquals(new String[] {"b", "c"}, registry.snapshot());
+	}
+
+	@Test
+	public void removesFirstOccurrenceOnly() {
+		ListenerRegistry<String> registry = new ListenerRegistry<>(EMPTY);
+		registry.add("a");
+		registry.add("b");
+		registry.add("a");
+
+		assertTrue(registry.remove("a"));
+		assertArrayEquals(new String[] {"b", "a"}, registry.snapshot());
+		assertFalse(registry.remove("c"));
+		assertEquals(2, registry.size());
+	}
+
+	@Test
+	public void addIfAbsentSkipsRegisteredListener() {
+		ListenerRegistry<String> registry = new ListenerRegistry<>(EMPTY);
+
+		assertTrue(registry.addIfAbsent("a"));
+		assertFalse(registry.addIfAbsent("a"));
+		assertArrayEquals(new String[] {"a"}, registry.snapshot());
+	}
+
+	@Test
+	public void shrinksToEmptyArray() {
+		ListenerRegistry<String> registry = new ListenerRegistry<>(EMPTY);
+		registry.add("a");
+
+		assertTrue(registry.remove("a"));
+		assertTrue(registry.isEmpty());
+		assertSame(EMPTY, registry.snapshot());
+
+		registry.add("b");
+		registry.clear();
+		assertSame(EMPTY, registry.snapshot());
+	}
+
+	@Test
+	public void listenerRemovedWhileNotifiedStillGetsCurrentNotification() {
+		final TestLifecycle lifecycle = new TestLifecycle();
+		final int[] calls = new int[2];
+		final Lifecycle.ActiveChangeListener second = new Lifecycle.ActiveChangeListener() {
+			@Override
+			public void onActiveChange(boolean active) {
+				calls[1]++;
+			}
+		};
+		lifecycle.addActiveChangeListener(new Lifecycle.ActiveChangeListener() {
+			@Override
+			public void onActiveChange(boolean active) {
+				calls[0]++;
+				lifecycle.removeActiveChangeListener(second);
+			}
+		});
+		lifecycle.addActiveChangeListener(second);
+
+		lifecycle.setActive(true);
+		lifecycle.setActive(false);
+
+		assertEquals(2, calls[0]);
+		assertEquals(1, calls[1]);
+	}
+}
@@ -0,0 +1,89 @@
+package com.talk4date.android.lifecycle;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+
+public class OneShotListenerTest {
+
+	@Test
+	public void deliversSingleEventAndDestroysReceiver() {
+		TestLifecycle lifecycle = TestLifecycle.resumed();
+		RecordingListener<Integer> listener = new RecordingListener<>();
+
+		EventReceiver<Integer> receiver = lifecycle.registerOneShotListener("tag", listener);
+		receiver.postEvent(1);
+		receiver.postEvent(2);
+
+		assertEquals(Arrays.asList(1), listener.events);
+		assertTrue(receiver.isDestroyed());
+		assertFalse(lifecycle.unregisterListener("tag"));
+	}
+
+	@Test
+	public void storesResponseWhileInactive() {
+		TestLifecycle lifecycle = new TestLifecycle();
+		RecordingListener<Integer> listener = new RecordingListener<>();
+		final List<EventReceiver<Integer>> destroyed = new ArrayList<>();
+
+		EventReceiver<Integer> receiver = lifecycle.registerOneShotListener("tag", listener);
+		receiver.addOnDestroyListener(new EventReceiver.OnDestroyListener<Integer>() {
+			@Override
+			public void onDestroy(EventReceiver<Integer> eventReceiver) {
+				destroyed.add(eventReceiver);
+			}
+		});
+		receiver.postEvent(1);
+		receiver.postEvent(2);
+		assertTrue(listener.events.isEmpty());
+
+		lifecycle.setActive(true);
+
+		assertEquals(Arrays.asList(1), listener.events);
+		assertEquals(Arrays.asList(receiver), destroyed);
+	}
+
+	@Test
+	public void reRegisteringFromListenerCreatesNewReceiver() {
+		final TestLifecycle lifecycle = TestLifecycle.resumed();
+		final List<Integer> events = new ArrayList<>();
+		final List<EventReceiver<Integer>> nextReceivers = new ArrayList<>();
+
+		EventListener<Integer> listener = new EventListener<Integer>() {
+			@Override
+			public void onEvent(Integer event) {
+				events.add(event);
+				nextReceivers.add(lifecycle.registerOneShotListener("tag", this));
+			}
+		};
+
+		EventReceiver<Integer> first = lifecycle.registerOneShotListener("tag", listener);
+		first.postEvent(1);
+
+		EventReceiver<Integer> second = nextReceivers.get(0);
+		assertNotSame(first, second);
+		assertFalse(second.isDestroyed());
+
+		second.postEvent(2);
+		assertEquals(Arrays.asList(1, 2), events);
+	}
+
+	@Test
+	public void keyedOneShotFreesItsSlot() {
+		TestLifecycle lifecycle = TestLifecycle.resumed();
+		ListenerKey<String> key = ListenerKey.of("oneShotKey", String.class);
+		RecordingListener<String> listener = new RecordingListener<>();
+
+		lifecycle.registerOneShotListener(key, listener).postEvent("a");
+
+		assertFalse(lifecycle.unregisterListener(key));
+		assertEquals(Arrays.asList("a"), listener.events);
+	}
+}
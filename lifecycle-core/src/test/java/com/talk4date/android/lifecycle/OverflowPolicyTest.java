@@ -0,0 +1,193 @@
+package com.talk4date.android.lifecycle;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public class OverflowPolicyTest {
+
+	@Test
+	public void dropOldest() {
+		TestLifecycle lifecycle = new TestLifecycle();
+		RecordingListener<Integer> listener = new RecordingListener<>();
+		LifecycleEventDispatcher<Integer> dispatcher = storing(lifecycle, OverflowPolicy.DROP_OLDEST, listener);
+
+		post(dispatcher, 1, 2, 3, 4);
+		lifecycle.setActive(true);
+
+		assertEquals(Arrays.asList(3, 4), listener.events);
+		assertEquals(2, dispatcher.getDroppedEventCount());
+	}
+
+	@Test
+	public void dropNewest() {
+		TestLifecycle lifecycle = new TestLifecycle();
+		RecordingListener<Integer> listener = new RecordingListener<>();
+		LifecycleEventDispatcher<Integer> dispatcher = storing(lifecycle, OverflowPolicy.DROP_NEWEST, listener);
+
+		post(dispatcher, 1, 2, 3, 4);
+		lifecycle.setActive(true);
+
+		assertEquals(Arrays.asList(1, 2), listener.events);
+		assertEquals(2, dispatcher.getDroppedEventCount());
+	}
+
+	@Test
+	public void keepLatest() {
+		TestLifecycle lifecycle = new TestLifecycle();
+		RecordingListener<Integer> listener = new RecordingListener<>();
+		LifecycleEventDispatcher<Integer> dispatcher = storing(lifecycle, OverflowPolicy.KEEP_LATEST, listener);
+
+		post(dispatcher, 1, 2, 3);
+		lifecycle.setActive(true);
+
+		assertEquals(Arrays.asList(3), listener.events);
+		assertEquals(2, dispatcher.getDroppedEventCount());
+	}
+
+	@Test
+	public void failFastThrowsOnDispatchThread() {
+		TestLifecycle lifecycle = new TestLifecycle();
+		RecordingListener<Integer> listener = new RecordingListener<>();
+		LifecycleEventDispatcher<Integer> dispatcher = storing(lifecycle, OverflowPolicy.FAIL_FAST, listener);
+
+		post(dispatcher, 1, 2);
+		try {
+			dispatcher.postEvent(3);
+			fail("Expected the capacity to be exhausted");
+		} catch (IllegalStateException e) {
+			// expected
+		}
+		lifecycle.setActive(true);
+
+		assertEquals(Arrays.asList(1, 2), listener.events);
+	}
+
+	@Test
+	public void failFastKeepsEventsQueuedFromOtherThreads() {
+		QueueScheduler scheduler = new QueueScheduler();
+		SchedulerLifecycle lifecycle = new SchedulerLifecycle(scheduler);
+		RecordingListener<Integer> listener = new RecordingListener<>();
+		LifecycleEventDispatcher<Integer> dispatcher = new LifecycleEventDispatcher<>(lifecycle,
+				ListenerOptions.storeWhileInactive(2, OverflowPolicy.FAIL_FAST));
+		dispatcher.setListener(listener);
+
+		post(dispatcher, 1, 2, 3, 4);
+		try {
+			scheduler.runAll();
+			fail("Expected the capacity to be exhausted");
+		} catch (IllegalStateException e) {
+			// expected
+		}
+		lifecycle.activate();
+		scheduler.runAll();
+
+		assertEquals(Arrays.asList(1, 2, 4), listener.events);
+	}
+
+	@Test
+	public void conflatedEventsDoNotExhaustCapacity() {
+		TestLifecycle lifecycle = new TestLifecycle();
+		RecordingListener<String> listener = new RecordingListener<>();
+		LifecycleEventDispatcher<String> dispatcher = new LifecycleEventDispatcher<>(lifecycle,
+				ListenerOptions.storeWhileInactive(2, OverflowPolicy.DROP_NEWEST).conflatedBy(new EventKeyExtractor<String>() {
+					@Override
+					public Object keyOf(String event) {
+						return event.substring(0, 1);
+					}
+				}));
+		dispatcher.setListener(listener);
+
+		post(dispatcher, "a1", "b1", "a2", "b2", "c1");
+		lifecycle.setActive(true);
+
+		assertEquals(Arrays.asList("a2", "b2"), listener.events);
+		assertEquals(1, dispatcher.getDroppedEventCount());
+	}
+
+	@Test
+	public void droppedEventsAreCountedByTag() {
+		TestLifecycle lifecycle = new TestLifecycle();
+		EventReceiver<Integer> receiver = lifecycle.registerListener("tag",
+				ListenerOptions.storeWhileInactive(1, OverflowPolicy.DROP_NEWEST), new RecordingListener<Integer>());
+
+		post(receiver, 1, 2, 3);
+
+		assertEquals(2, lifecycle.getDroppedEventCount("tag"));
+		assertEquals(0, lifecycle.getDroppedEventCount("unknown"));
+	}
+
+	@Test
+	public void droppedEventsAreCountedByKey() {
+		TestLifecycle lifecycle = new TestLifecycle();
+		ListenerKey<Integer> key = ListenerKey.of("droppedKey", Integer.class);
+		EventReceiver<Integer> receiver = lifecycle.registerListener(key,
+				ListenerOptions.storeWhileInactive(2, OverflowPolicy.DROP_OLDEST), new RecordingListener<Integer>());
+
+		post(receiver, 1, 2, 3);
+
+		assertEquals(1, lifecycle.getDroppedEventCount(key));
+		lifecycle.unregisterListener(key);
+		assertEquals(0, lifecycle.getDroppedEventCount(key));
+	}
+
+	private static LifecycleEventDispatcher<Integer> storing(Lifecycle lifecycle, OverflowPolicy policy,
+			EventListener<Integer> listener) {
+		LifecycleEventDispatcher<Integer> dispatcher =
+				new LifecycleEventDispatcher<>(lifecycle, ListenerOptions.storeWhileInactive(2, policy));
+		dispatcher.setListener(listener);
+		return dispatcher;
+	}
+
+	@SafeVarargs
+	private static <T> void post(EventReceiver<T> receiver, T... events) {
+		for (T event : events) {
+			receiver.postEvent(event);
+		}
+	}
+
+	/**
+	 * Scheduler for which the calling thread is never the dispatch thread, tasks run when the test runs them.
+	 */
+	private static class QueueScheduler implements DispatchScheduler {
+
+		private final List<Runnable> tasks = new ArrayList<>();
+
+		@Override
+		public boolean isDispatchThread() {
+			return false;
+		}
+
+		@Override
+		public void post(Runnable task) {
+			tasks.add(task);
+		}
+
+		@Override
+		public void postDelayed(Runnable task, long delayMillis) {
+			tasks.add(task);
+		}
+
+		void runAll() {
+			while (!tasks.isEmpty()) {
+				tasks.remove(0).run();
+			}
+		}
+	}
+
+	private static class SchedulerLifecycle extends BaseLifecycle {
+
+		SchedulerLifecycle(DispatchScheduler scheduler) {
+			super(scheduler);
+		}
+
+		void activate() {
+			setActive(true);
+		}
+	}
+}
@@ -0,0 +1,17 @@
+package com.talk4date.android.lifecycle;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Listener recording all received events.
+ */
+public class RecordingListener<T> implements EventListener<T> {
+
+	public final List<T> events = new ArrayList<>();
+
+	@Override
+	public void onEvent(T event) {
+		events.add(event);
+	}
+}
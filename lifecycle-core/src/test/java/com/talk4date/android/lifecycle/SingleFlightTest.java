@@ -0,0 +1,175 @@
+package com.talk4date.android.lifecycle;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class SingleFlightTest {
+
+	@Test
+	public void postsResultToAllAttachedReceivers() {
+		TestLifecycle lifecycle = TestLifecycle.resumed();
+		RecordingListener<String> first = new RecordingListener<>();
+		RecordingListener<String> second = new RecordingListener<>();
+		SingleFlight<String, String> singleFlight = new SingleFlight<>();
+		RecordingCall call = new RecordingCall();
+
+		assertTrue(singleFlight.request("key", lifecycle.registerListener("first", false, first), call));
+		assertFalse(singleFlight.request("key", lifecycle.registerListener("second", false, second), call));
+		assertTrue(singleFlight.isInFlight("key"));
+		assertEquals(1, call.started.size());
+
+		call.started.get(0).postEvent("result");
+		call.started.get(0).postEvent("late");
+
+		assertFalse(singleFlight.isInFlight("key"));
+		assertEquals(Arrays.asList("result"), first.events);
+		assertEquals(Arrays.asList("result"), second.events);
+		assertTrue(call.started.get(0).isDestroyed());
+	}
+
+	@Test
+	public void ignoresReceiverAttachedTwice() {
+		TestLifecycle lifecycle = TestLifecycle.resumed();
+		RecordingListener<String> listener = new RecordingListener<>();
+		SingleFlight<String, String> singleFlight = new SingleFlight<>();
+		RecordingCall call = new RecordingCall();
+		EventReceiver<String> receiver = lifecycle.registerListener("tag", false, listener);
+
+		singleFlight.request("key", receiver, call);
+		singleFlight.request("key", receiver, call);
+		call.started.get(0).postEvent("result");
+
+		assertEquals(Arrays.asList("result"), listener.events);
+	}
+
+	@Test
+	public void abandonsCallWhenAllReceiversAreDestroyed() {
+		TestLifecycle first = TestLifecycle.resumed();
+		TestLifecycle second = TestLifecycle.resumed();
+		SingleFlight<String, String> singleFlight = new SingleFlight<>();
+		RecordingCall call = new RecordingCall();
+
+		singleFlight.request("key", first.registerListener("tag", false, new RecordingListener<String>()), call);
+		singleFlight.request("key", second.registerListener("tag", false, new RecordingListener<String>()), call);
+		CancellationToken token = CancellationToken.of(call.started.get(0));
+
+		first.destroy();
+		assertFalse(token.isCancelled());
+		assertTrue(singleFlight.isInFlight("key"));
+
+		second.destroy();
+		assertTrue(token.isCancelled());
+		assertFalse(singleFlight.isInFlight("key"));
+	}
+
+	@Test
+	public void startsNewCallAfterAbandonedOne() {
+		TestLifecycle lifecycle = TestLifecycle.resumed();
+		RecordingListener<String> listener = new RecordingListener<>();
+		SingleFlight<String, String> singleFlight = new SingleFlight<>();
+		RecordingCall call = new RecordingCall();
+
+		singleFlight.request("key", lifecycle.registerListener("old", false, listener), call);
+		lifecycle.unregisterListener("old");
+		assertTrue(singleFlight.request("key", lifecycle.registerListener("new", false, listener), call));
+
+		call.started.get(0).postEvent("abandoned");
+		call.started.get(1).postEvent("result");
+
+		assertEquals(Arrays.asList("result"), listener.events);
+	}
+
+	@Test
+	public void ignoresDestroyedReceiver() {
+		TestLifecycle lifecycle = TestLifecycle.resumed();
+		EventReceiver<String> receiver = lifecycle.registerListener("tag", false, new RecordingListener<String>());
+		lifecycle.unregisterListener("tag");
+		SingleFlight<String, String> singleFlight = new SingleFlight<>();
+		RecordingCall call = new RecordingCall();
+
+		assertFalse(singleFlight.request("key", receiver, call));
+		assertTrue(call.started.isEmpty());
+	}
+
+	@Test
+	public void doesNotStartCallWhenReceiverIsDestroyedWhileAttaching() {
+		SingleFlight<String, String> singleFlight = new SingleFlight<>();
+		RecordingCall call = new RecordingCall();
+
+		assertFalse(singleFlight.request("key", new DestroyedWhileAttachingReceiver(), call));
+
+		assertTrue(call.started.isEmpty());
+		assertFalse(singleFlight.isInFlight("key"));
+	}
+
+	@Test
+	public void removesFlightWhenCallFailsToStart() {
+		TestLifecycle lifecycle = TestLifecycle.resumed();
+		SingleFlight<String, String> singleFlight = new SingleFlight<>();
+		final List<EventReceiver<String>> started = new ArrayList<>();
+
+		try {
+			singleFlight.request("key", lifecycle.registerListener("tag", false, new RecordingListener<String>()),
+					new SingleFlight.Call<String>() {
+						@Override
+						public void start(EventReceiver<String> resultReceiver) {
+							started.add(resultReceiver);
+							throw new IllegalStateException("failed");
+						}
+					});
+			fail("Expected the exception of the call");
+		} catch (IllegalStateException e) {
+			assertEquals("failed", e.getMessage());
+		}
+
+		assertFalse(singleFlight.isInFlight("key"));
+		assertTrue(started.get(0).isDestroyed());
+	}
+
+	/**
+	 * Receiver destroyed as soon as a destroy listener is added,
+	 * like a receiver destroyed on another thread while it is attached.
+	 */
+	private static class DestroyedWhileAttachingReceiver implements EventReceiver<String> {
+
+		private boolean destroyed = false;
+
+		@Override
+		public void postEvent(String event) {}
+
+		@Override
+		public boolean isDestroyed() {
+			return destroyed;
+		}
+
+		@Override
+		public void addOnDestroyListener(OnDestroyListener<String> listener) {
+			destroyed = true;
+			listener.onDestroy(this);
+		}
+
+		@Override
+		public void removeOnDestroyListener(OnDestroyListener<String> listener) {}
+	}
+
+	/**
+	 * Call recording the result receivers of all started calls.
+	 */
+	private static class RecordingCall implements SingleFlight.Call<String> {
+
+		final List<EventReceiver<String>> started = new ArrayList<>();
+
+		@Override
+		public void start(EventReceiver<String> resultReceiver) {
+			started.add(resultReceiver);
+		}
+	}
+}
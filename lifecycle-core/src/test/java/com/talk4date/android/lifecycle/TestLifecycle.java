@@ -0,0 +1,45 @@
+package com.talk4date.android.lifecycle;
+
+/**
+ * Lifecycle whose state is controlled by the tests, dispatching on the calling thread.
+ */
+public class TestLifecycle extends BaseLifecycle {
+
+	public TestLifecycle() {
+		super(ImmediateScheduler.get());
+	}
+
+	/**
+	 * Creates a resumed lifecycle.
+	 */
+	public static TestLifecycle resumed() {
+		TestLifecycle lifecycle = new TestLifecycle();
+		lifecycle.setState(LifecycleState.RESUMED);
+		return lifecycle;
+	}
+
+	@Override
+	public void setActive(boolean active) {
+		super.setActive(active);
+	}
+
+	@Override
+	public void setState(LifecycleState state) {
+		super.setState(state);
+	}
+
+	@Override
+	public void setParent(BaseLifecycle parent) {
+		super.setParent(parent);
+	}
+
+	@Override
+	public void invalidateEventListeners() {
+		super.invalidateEventListeners();
+	}
+
+	@Override
+	public void destroy() {
+		super.destroy();
+	}
+}
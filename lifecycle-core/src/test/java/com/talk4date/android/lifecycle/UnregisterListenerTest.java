@@ -0,0 +1,97 @@
+package com.talk4date.android.lifecycle;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class UnregisterListenerTest {
+
+	@Test
+	public void unregisterDestroysReceiverAndDropsStoredEvents() {
+		TestLifecycle lifecycle = new TestLifecycle();
+		RecordingListener<String> listener = new RecordingListener<>();
+		final List<EventReceiver<String>> destroyed = new ArrayList<>();
+
+		EventReceiver<String> receiver = lifecycle.registerListener("tag", true, listener);
+		receiver.addOnDestroyListener(new EventReceiver.OnDestroyListener<String>() {
+			@Override
+			public void onDestroy(EventReceiver<String> eventReceiver) {
+				destroyed.add(eventReceiver);
+			}
+		});
+		receiver.postEvent("a");
+
+		assertTrue(lifecycle.unregisterListener("tag"));
+		assertFalse(lifecycle.unregisterListener("tag"));
+		assertTrue(receiver.isDestroyed());
+		assertEquals(Arrays.asList(receiver), destroyed);
+
+		lifecycle.setActive(true);
+		receiver.postEvent("b");
+		assertTrue(listener.events.isEmpty());
+	}
+
+	@Test
+	public void registeringAgainCreatesNewReceiver() {
+		TestLifecycle lifecycle = TestLifecycle.resumed();
+		RecordingListener<String> listener = new RecordingListener<>();
+
+		EventReceiver<String> first = lifecycle.registerListener("tag", false, listener);
+		lifecycle.unregisterListener("tag");
+		EventReceiver<String> second = lifecycle.registerListener("tag", false, listener);
+
+		assertNotSame(first, second);
+		second.postEvent("a");
+		assertEquals(Arrays.asList("a"), listener.events);
+	}
+
+	@Test
+	public void unregisterKeyedListener() {
+		TestLifecycle lifecycle = TestLifecycle.resumed();
+		ListenerKey<String> key = ListenerKey.of("unregisterKey", String.class);
+		RecordingListener<String> listener = new RecordingListener<>();
+
+		EventReceiver<String> first = lifecycle.registerListener(key, false, listener);
+		assertTrue(lifecycle.unregisterListener(key));
+		assertFalse(lifecycle.unregisterListener(key));
+		assertTrue(first.isDestroyed());
+
+		EventReceiver<String> second = lifecycle.registerListener(key, false, listener);
+		assertNotSame(first, second);
+		second.postEvent("a");
+		assertEquals(Arrays.asList("a"), listener.events);
+	}
+
+	@Test
+	public void destroyedLifecycleKeepsItsReceivers() {
+		TestLifecycle lifecycle = TestLifecycle.resumed();
+		RecordingListener<String> listener = new RecordingListener<>();
+		EventReceiver<String> receiver = lifecycle.registerListener("tag", false, listener);
+
+		lifecycle.destroy();
+
+		assertTrue(receiver.isDestroyed());
+		assertSame(receiver, lifecycle.registerListener("tag", false, listener));
+		receiver.postEvent("a");
+		assertTrue(listener.events.isEmpty());
+	}
+
+	@Test
+	public void registeringAfterDestroyReturnsDestroyedReceiver() {
+		TestLifecycle lifecycle = TestLifecycle.resumed();
+		lifecycle.destroy();
+
+		EventReceiver<String> receiver = lifecycle.registerListener("late", false, new RecordingListener<String>());
+
+		assertTrue(receiver.isDestroyed());
+		assertTrue(CancellationToken.of(receiver).isCancelled());
+	}
+}
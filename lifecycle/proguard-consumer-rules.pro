@@ -0,0 +1,8 @@
+# ProGuard rules applied to apps using this library.
+
+# AbstractFragmentLifecycleCallbacks derives its event mask by looking up the overridden callback methods by name,
+# so the callback methods must keep their names in all implementations.
+-keep interface com.talk4date.android.lifecycle.callbacks.FragmentLifecycleCallbacks { *; }
+-keepclassmembers class * implements com.talk4date.android.lifecycle.callbacks.FragmentLifecycleCallbacks {
+	public void onFragment*(...);
+}
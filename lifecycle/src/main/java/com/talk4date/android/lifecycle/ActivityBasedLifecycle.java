@@ -15,6 +15,13 @@ public class ActivityBasedLifecycle extends BaseLifecycle {
 	 */
 	protected boolean newLifecycle = true;
 
+	/**
+	 * Activity based lifecycles dispatch their events on the main thread.
+	 */
+	public ActivityBasedLifecycle() {
+		super(MainThreadScheduler.get());
+	}
+
 	/**
 	 * Indicates if the lifecycle was restored.
 	 * If true the lifecycle was recreated because the process was destroyed and recreated.
@@ -1,6 +1,7 @@
 package com.talk4date.android.lifecycle;
 
 import android.app.Activity;
+import android.app.Application;
 import android.os.Bundle;
 import android.support.v4.app.Fragment;
 import android.support.v4.app.FragmentActivity;
@@ -12,10 +13,15 @@ import org.slf4j.LoggerFactory;
  * A lifecycle of an activity.
  * It is active only when the activity is resumed.
  *
+ * The lifecycle already counts as {@link LifecycleState#RESUMED} from the creation of the activity
+ * until it is paused for the first time, so events are delivered while the activity is created.
+ * Afterwards the state follows the state of the activity.
+ *
  * The lifecycle can either be retained across configuration changes (ActivitySession)
  * or die directly together with the activity on every configuration change.
  *
- * The lifecycle internally is represented by a worker fragment.
+ * The lifecycle internally is represented by a worker fragment,
+ * or when {@link #install(Application) installed} by state tracked through activity lifecycle callbacks.
  */
 public class ActivityLifecycle extends ActivityBasedLifecycle {
 
@@ -24,11 +30,42 @@ public class ActivityLifecycle extends ActivityBasedLifecycle {
 	private static final String TAG_ACTIVITY_SESSION_LIFECYCLE_FRAGMENT = "ACTIVITY_SESSION_LIFECYCLE_FRAGMENT";
 	private static final String TAG_ACTIVITY_LIFECYCLE_FRAGMENT = "ACTIVITY_LIFECYCLE_FRAGMENT";
 
+	/**
+	 * Tracks the state of all activities when installed, null if worker fragments are used.
+	 */
+	private static ActivityTracker tracker;
+
+	/**
+	 * The lifecycle fragments of every activity instance when worker fragments are used.
+	 * Saves the lookup in the fragment manager and sees fragments whose transaction did not run yet.
+	 */
+	private static final WeakIdentityMap<FragmentActivity, LifecycleFragments> lifecycleFragments = new WeakIdentityMap<>();
+
 	/**
 	 * Private constructor. Use #sessionLifecylce to obtain instances.
 	 */
 	private ActivityLifecycle() {}
 
+	/**
+	 * Drives the activity lifecycles from {@link Application.ActivityLifecycleCallbacks}
+	 * instead of adding a worker fragment to every activity.
+	 *
+	 * Session lifecycles are retained across configuration changes and restored detection works by an id
+	 * in the activities saved state. In contrast to worker fragments a session lifecycle is destroyed when
+	 * the system destroys the activity without a configuration change, it is restored when the activity
+	 * is recreated later.
+	 *
+	 * Must be called once in {@link Application#onCreate()} before any activity is created.
+	 * Activities created before are still served by worker fragments.
+	 */
+	public static void install(Application application) {
+		if (tracker != null) {
+			throw new IllegalStateException("ActivityLifecycle is already installed");
+		}
+		tracker = new ActivityTracker();
+		application.registerActivityLifecycleCallbacks(tracker);
+	}
+
 	/**
 	 * Get the session lifecycle for the given activity.
 	 * The returned lifecycle will be kept alive across configuration changes.
@@ -49,17 +86,42 @@ public class ActivityLifecycle extends ActivityBasedLifecycle {
 		return lifecycle(activity, false, TAG_ACTIVITY_LIFECYCLE_FRAGMENT);
 	}
 
+	/**
+	 * Get the lifecycle of an activity tracked by the installed activity lifecycle callbacks.
+	 *
+	 * @return The lifecycle or null if the activity is not tracked.
+	 */
+	static ActivityLifecycle trackedLifecycle(Activity activity, boolean retain) {
+		if (tracker == null) {
+			return null;
+		}
+		ActivityState state = tracker.activities.get(activity);
+		if (state == null) {
+			return null;
+		}
+		return retain ? state.sessionLifecycle() : state.instanceLifecycle();
+	}
+
 	private static ActivityLifecycle lifecycle(FragmentActivity activity, boolean retain, String tag) {
-		ActivityLifecycleFragment fragment = (ActivityLifecycleFragment)
-				activity.getSupportFragmentManager().findFragmentByTag(tag);
+		ActivityLifecycle trackedLifecycle = trackedLifecycle(activity, retain);
+		if (trackedLifecycle != null) {
+			return trackedLifecycle;
+		}
+
+		LifecycleFragments fragments = lifecycleFragments(activity);
+		ActivityLifecycleFragment fragment = fragments.get(retain);
+		if (fragment == null) {
+			fragment = (ActivityLifecycleFragment) activity.getSupportFragmentManager().findFragmentByTag(tag);
+			fragments.set(retain, fragment);
+		}
 
 		if (fragment == null) {
 			fragment = new ActivityLifecycleFragment().withRetention(retain);
 			fragment.restoredFromFragmentState = false;
 			fragment.lifecycle.newLifecycle = true;
-			activity.getSupportFragmentManager().beginTransaction()
-					.add(fragment, tag)
-					.commit();
+			addLifecycleFragment(activity, fragment, tag);
+			// cached, so the fragment is never added twice even if the transaction is still pending
+			fragments.set(retain, fragment);
 		} else if (retain && !fragment.configured) {
 			// fragment already existed, but wasn't configured for this activity yet
 
@@ -79,6 +141,61 @@ public class ActivityLifecycle extends ActivityBasedLifecycle {
 		return fragment.lifecycle;
 	}
 
+	/**
+	 * Get the cached lifecycle fragments of the activity.
+	 */
+	private static LifecycleFragments lifecycleFragments(FragmentActivity activity) {
+		LifecycleFragments fragments = lifecycleFragments.get(activity);
+		if (fragments == null) {
+			// drop entries of garbage collected activities
+			while (lifecycleFragments.pollReclaimed() != null) {
+				log.trace("dropped lifecycle fragments of collected activity");
+			}
+			fragments = new LifecycleFragments();
+			lifecycleFragments.put(activity, fragments);
+		}
+		return fragments;
+	}
+
+	/**
+	 * Adds the fragment immediately, so it is attached and active before the lifecycle is returned.
+	 * Falls back to an asynchronous commit if the fragment manager is executing transactions.
+	 */
+	private static void addLifecycleFragment(FragmentActivity activity, ActivityLifecycleFragment fragment, String tag) {
+		try {
+			activity.getSupportFragmentManager().beginTransaction()
+					.add(fragment, tag)
+					.commitNow();
+		} catch (IllegalStateException e) {
+			log.debug("can't add lifecycle fragment immediately, committing asynchronously", e);
+			activity.getSupportFragmentManager().beginTransaction()
+					.add(fragment, tag)
+					.commit();
+		}
+	}
+
+	/**
+	 * The lifecycle fragments of an activity instance, null if not known yet.
+	 */
+	private static class LifecycleFragments {
+
+		ActivityLifecycleFragment session;
+
+		ActivityLifecycleFragment instance;
+
+		ActivityLifecycleFragment get(boolean retain) {
+			return retain ? session : instance;
+		}
+
+		void set(boolean retain, ActivityLifecycleFragment fragment) {
+			if (retain) {
+				session = fragment;
+			} else {
+				instance = fragment;
+			}
+		}
+	}
+
 	/**
 	 * Fragment that holds and controls the activity lifecycle.
 	 */
@@ -120,6 +237,15 @@ public class ActivityLifecycle extends ActivityBasedLifecycle {
 			lifecycle.setActive(true);
 		}
 
+		@Override
+		public void onStart() {
+			super.onStart();
+			if (!lifecycle.getState().isAtLeast(LifecycleState.STARTED)) {
+				log.trace("onStart -> started");
+				lifecycle.setState(LifecycleState.STARTED);
+			}
+		}
+
 		@Override
 		public void onPause() {
 			super.onPause();
@@ -127,6 +253,13 @@ public class ActivityLifecycle extends ActivityBasedLifecycle {
 			lifecycle.setActive(false);
 		}
 
+		@Override
+		public void onStop() {
+			super.onStop();
+			log.trace("onStop -> created");
+			lifecycle.setState(LifecycleState.CREATED);
+		}
+
 		@Override
 		public void onResume() {
 			super.onResume();
@@ -162,4 +295,125 @@ public class ActivityLifecycle extends ActivityBasedLifecycle {
 					+ "configured: " + configured + " }";
 		}
 	}
+
+	/**
+	 * State of an activity and its lazily created lifecycles.
+	 */
+	private static class ActivityState extends ComponentState<ActivityLifecycle> {
+
+		ActivityState(long id, boolean sessionNew, boolean sessionRestored) {
+			super(id, sessionNew, sessionRestored);
+		}
+
+		@Override
+		ActivityLifecycle newLifecycle() {
+			return new ActivityLifecycle();
+		}
+	}
+
+	/**
+	 * Activity lifecycle callbacks that drive the activity lifecycles.
+	 * Like the worker fragments, the lifecycles are resumed from creation until paused.
+	 */
+	private static class ActivityTracker implements Application.ActivityLifecycleCallbacks {
+
+		private static final String STATE_LIFECYCLE_ID = "STATE_TALK4DATE_ACTIVITY_LIFECYCLE_ID";
+
+		/**
+		 * State of all current activity instances.
+		 */
+		final WeakIdentityMap<Activity, ActivityState> activities = new WeakIdentityMap<>();
+
+		/**
+		 * State of all activities by id, including states retained during a configuration change.
+		 */
+		private final LongHashMap<ActivityState> states = new LongHashMap<>();
+
+		@Override
+		public void onActivityCreated(Activity activity, Bundle savedInstanceState) {
+			// activities always get destroyed through the callbacks, entries of collected ones only need to be dropped
+			while (activities.pollReclaimed() != null) {
+				log.warn("activity was garbage collected without being destroyed");
+			}
+
+			long id = savedInstanceState != null ? savedInstanceState.getLong(STATE_LIFECYCLE_ID, 0L) : 0L;
+			ActivityState state = id != 0L ? states.get(id) : null;
+			if (savedInstanceState == null) {
+				// new activity -> new state
+				state = new ActivityState(LifecycleIds.next(), true, false);
+				states.put(state.id, state);
+			} else if (state != null) {
+				// existing state after a configuration change
+				state.destroyInstance();
+				state.onRecreated();
+			} else {
+				// restored state, or state saved before we were installed
+				state = new ActivityState(id != 0L ? id : LifecycleIds.next(), false, true);
+				states.put(state.id, state);
+			}
+
+			activities.put(activity, state);
+			state.setState(LifecycleState.RESUMED);
+		}
+
+		@Override
+		public void onActivityStarted(Activity activity) {
+			ActivityState state = activities.get(activity);
+			if (state != null && !state.state.isAtLeast(LifecycleState.STARTED)) {
+				state.setState(LifecycleState.STARTED);
+			}
+		}
+
+		@Override
+		public void onActivityResumed(Activity activity) {
+			ActivityState state = activities.get(activity);
+			if (state != null) {
+				state.setState(LifecycleState.RESUMED);
+			}
+		}
+
+		@Override
+		public void onActivityPaused(Activity activity) {
+			ActivityState state = activities.get(activity);
+			if (state != null) {
+				state.setState(LifecycleState.STARTED);
+			}
+		}
+
+		@Override
+		public void onActivityStopped(Activity activity) {
+			ActivityState state = activities.get(activity);
+			if (state != null) {
+				state.setState(LifecycleState.CREATED);
+			}
+		}
+
+		@Override
+		public void onActivitySaveInstanceState(Activity activity, Bundle outState) {
+			ActivityState state = activities.get(activity);
+			if (state != null) {
+				outState.putLong(STATE_LIFECYCLE_ID, state.id);
+			}
+		}
+
+		@Override
+		public void onActivityDestroyed(Activity activity) {
+			ActivityState state = activities.remove(activity);
+			if (state == null) {
+				return;
+			}
+
+			log.trace("destroying instance lifecycle because activity is destroyed");
+			state.destroyInstance();
+
+			if (activity.isChangingConfigurations()) {
+				log.debug("invalidating event listeners");
+				state.invalidateSession();
+			} else {
+				log.debug("destroying session lifecycle because activity is not recreated");
+				states.remove(state.id);
+				state.destroy();
+			}
+		}
+	}
 }
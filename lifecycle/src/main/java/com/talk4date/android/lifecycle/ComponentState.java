@@ -0,0 +1,148 @@
+package com.talk4date.android.lifecycle;
+
+/**
+ * State of an activity or fragment and its lazily created session and instance lifecycles.
+ *
+ * The state is kept across configuration changes, a new component instance takes it over
+ * by the id it saved in its instance state.
+ *
+ * @param <L> The type of lifecycles.
+ */
+abstract class ComponentState<L extends ActivityBasedLifecycle> {
+
+	final long id;
+
+	/**
+	 * The session lifecycle, null until first accessed.
+	 * Retained across component instances.
+	 */
+	L sessionLifecycle;
+
+	/**
+	 * The instance lifecycle of the current component instance, null until first accessed.
+	 */
+	L instanceLifecycle;
+
+	/**
+	 * The current state of the component.
+	 */
+	LifecycleState state = LifecycleState.CREATED;
+
+	/**
+	 * Value of {@link ActivityBasedLifecycle#isNew()} for the session lifecycle.
+	 */
+	boolean sessionNew;
+
+	/**
+	 * Value of {@link ActivityBasedLifecycle#isRestored()} for the session lifecycle.
+	 */
+	boolean sessionRestored;
+
+	ComponentState(long id, boolean sessionNew, boolean sessionRestored) {
+		this.id = id;
+		this.sessionNew = sessionNew;
+		this.sessionRestored = sessionRestored;
+	}
+
+	/**
+	 * Creates a new lifecycle instance.
+	 */
+	abstract L newLifecycle();
+
+	/**
+	 * Get the session lifecycle, creating it if needed.
+	 * A session lifecycle that was destroyed together with its parent is recreated as restored lifecycle.
+	 */
+	L sessionLifecycle() {
+		dropDestroyedSession();
+		if (sessionLifecycle == null) {
+			sessionLifecycle = createLifecycle(sessionNew, sessionRestored);
+		}
+		return sessionLifecycle;
+	}
+
+	/**
+	 * Get the instance lifecycle, creating it if needed.
+	 * An instance lifecycle that was destroyed together with its parent, e.g. of a retained fragment,
+	 * is recreated as new lifecycle.
+	 */
+	L instanceLifecycle() {
+		if (instanceLifecycle == null || instanceLifecycle.isDestroyed()) {
+			// instance lifecycle is always new
+			instanceLifecycle = createLifecycle(true, false);
+		}
+		return instanceLifecycle;
+	}
+
+	/**
+	 * Called when a new component instance takes over an existing state after a configuration change.
+	 */
+	void onRecreated() {
+		sessionNew = false;
+		sessionRestored = false;
+		dropDestroyedSession();
+		if (sessionLifecycle != null) {
+			sessionLifecycle.newLifecycle = false;
+			sessionLifecycle.restored = false;
+		}
+	}
+
+	/**
+	 * Forgets a session lifecycle destroyed by its parent, events might have been lost.
+	 */
+	private void dropDestroyedSession() {
+		if (sessionLifecycle != null && sessionLifecycle.isDestroyed()) {
+			sessionLifecycle = null;
+			sessionNew = false;
+			sessionRestored = true;
+		}
+	}
+
+	/**
+	 * Destroys the instance lifecycle.
+	 */
+	void destroyInstance() {
+		if (instanceLifecycle != null) {
+			instanceLifecycle.destroy();
+			instanceLifecycle = null;
+		}
+	}
+
+	/**
+	 * Destroys all lifecycles.
+	 */
+	void destroy() {
+		destroyInstance();
+		if (sessionLifecycle != null) {
+			sessionLifecycle.destroy();
+			sessionLifecycle = null;
+		}
+	}
+
+	/**
+	 * Invalidates the event listeners of the session lifecycle, because the component instance is gone.
+	 */
+	void invalidateSession() {
+		if (sessionLifecycle != null) {
+			sessionLifecycle.invalidateEventListeners();
+		}
+	}
+
+	void setState(LifecycleState state) {
+		this.state = state;
+		if (sessionLifecycle != null) {
+			sessionLifecycle.setState(state);
+		}
+		if (instanceLifecycle != null) {
+			instanceLifecycle.setState(state);
+		}
+	}
+
+	private L createLifecycle(boolean newLifecycle, boolean restored) {
+		L lifecycle = newLifecycle();
+		lifecycle.newLifecycle = newLifecycle;
+		lifecycle.restored = restored;
+		lifecycle.setState(state);
+		return lifecycle;
+	}
+}
@@ -9,10 +9,6 @@ import com.talk4date.android.lifecycle.callbacks.FragmentLifecycleCallbacks;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.EnumMap;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.UUID;
 import static com.talk4date.android.lifecycle.FragmentLifecycleType.*;
 
 /**
@@ -21,55 +17,39 @@ import static com.talk4date.android.lifecycle.FragmentLifecycleType.*;
  * There are two types of lifecycles: the instance and the session lifecycles.
  * For a detailed description see {@link #sessionLifecycle(android.support.v4.app.Fragment)} and
  * {@link #instanceLifecycle(android.support.v4.app.Fragment)}.
+ *
+ * The lifecycle is a child of the lifecycle of the same type of its parent fragment or activity,
+ * it is only active while the parent is active and destroyed together with it.
  */
 public class FragmentLifecycle extends ActivityBasedLifecycle {
 
 	private static final Logger log = LoggerFactory.getLogger(FragmentLifecycle.class);
 
-	/**
-	 * An id that is unique for the current process.
-	 * Used to avoid id clashes through app restarts.
-	 */
-	private static String processUniqueId = UUID.randomUUID().toString();
-
-	/**
-	 * The last used fragment id inside the process.
-	 */
-	private static int lastId = 0;
-
-	/**
-	 * Get a new globally unique fragment id.
-	 */
-	private static String newFragmentId() {
-		lastId ++;
-		return processUniqueId + lastId;
-	}
-
 	/**
 	 * We assign all fragments an id.
 	 * The fragment either gets the id from instance state or when created it gets a new id.
+	 *
+	 * Fragments are compared by identity and only weakly referenced, so this map never keeps a fragment alive.
+	 * However listeners registered in the lifecycles of a fragment usually reference the fragment, and the state
+	 * of the fragment stays reachable through {@link #fragmentStates}. So a fragment that is never destroyed
+	 * stays reachable until another instance takes over its state, which drops the listeners of the previous instance.
+	 * Only fragments garbage collected without being destroyed get their lifecycles destroyed by
+	 * {@link #reclaimOrphans()}.
+	 * Fragments implementing {@link FragmentLifecycleHolder} additionally keep their state themselves.
 	 */
-	private static Map<Fragment, String> fragmentToId = new HashMap<>();
+	private static WeakIdentityMap<Fragment, FragmentState> fragments = new WeakIdentityMap<>();
 
 	/**
-	 * All existing fragment lifecycles.
-	 * Mapped type -> id -> lifecycle.
+	 * State of all known fragments by id.
 	 *
-	 * The current implementation eagerly creates and manages the session and instance lifecycle.
-	 * We could probably safe some memory when we only track the current fragment states and create lifecycles on demand.
+	 * Only the fragment state is tracked eagerly, the lifecycles are created on first access.
+	 * The state of a fragment is kept across configuration changes, so its session lifecycle can be retained.
 	 */
-	private static EnumMap<FragmentLifecycleType, Map<String, FragmentLifecycle>> lifecycles;
-
-	static {
-		lifecycles = new EnumMap<>(FragmentLifecycleType.class);
-		for (FragmentLifecycleType type : FragmentLifecycleType.values()) {
-			lifecycles.put(type, new HashMap<String, FragmentLifecycle>());
-		}
-	}
+	private static LongHashMap<FragmentState> fragmentStates = new LongHashMap<>();
 
 	/**
 	 * The instance lifecycle is directly tied to the fragment instance and destroyed when the instance is destroyed.
-	 * It is only active when the fragment is in resumed state.
+	 * It is only active when the fragment is in resumed state, its state follows the state of the fragment.
 	 *
 	 * @param fragment The fragment for which to get the lifecycle.
 	 */
@@ -80,7 +60,7 @@ public class FragmentLifecycle extends ActivityBasedLifecycle {
 
 	/**
 	 * The session lifecycle is retained across configuration changes and app kills.
-	 * It is only active when the fragment is in resumed state.
+	 * It is only active when the fragment is in resumed state, its state follows the state of the fragment.
 	 *
 	 * When the fragments hosting activity is destroyed, the lifecycle is destroyed too.
 	 *
@@ -96,28 +76,126 @@ public class FragmentLifecycle extends ActivityBasedLifecycle {
 	}
 
 	/**
-	 * Get the lifecycle for the given type and fragment.
+	 * Get the lifecycle for the given type and fragment, creating it if needed.
 	 */
 	private static FragmentLifecycle lifecycle(FragmentLifecycleType type, Fragment fragment) {
-		String id = fragmentToId.get(fragment);
-		if (id == null) {
+		FragmentState state = fragmentState(fragment);
+		FragmentLifecycle lifecycle = type == SESSION ? state.sessionLifecycle() : state.instanceLifecycle();
+		if (lifecycle.getParent() == null && !lifecycle.isDestroyed()) {
+			lifecycle.setParent(parentLifecycle(type, fragment));
+		}
+		return lifecycle;
+	}
+
+	/**
+	 * The lifecycle of the same type of the parent fragment, or of the activity if the fragment is not nested.
+	 * Activity lifecycles are only used as parents when they are tracked by {@link ActivityLifecycle#install},
+	 * otherwise every activity would get lifecycle fragments.
+	 *
+	 * @return The parent lifecycle or null if there is none.
+	 */
+	private static BaseLifecycle parentLifecycle(FragmentLifecycleType type, Fragment fragment) {
+		Fragment parentFragment = fragment.getParentFragment();
+		if (parentFragment != null && findFragmentState(parentFragment) != null) {
+			return lifecycle(type, parentFragment);
+		}
+		return ActivityLifecycle.trackedLifecycle(fragment.getActivity(), type == SESSION);
+	}
+
+	/**
+	 * Get the tracked state of the given fragment.
+	 */
+	private static FragmentState fragmentState(Fragment fragment) {
+		FragmentState state = findFragmentState(fragment);
+		if (state == null) {
 			throw new IllegalStateException("Fragment was not registered. " +
 					"Are you sure that the FragmentLifecycle callbacks are registered correctly?");
 		}
+		return state;
+	}
 
-		FragmentLifecycle lifecycle = lifecycles.get(type).get(fragmentToId.get(fragment));
-		if (lifecycle == null) {
-			throw new IllegalStateException("Lifecycle was null, caused probably a bug in FragmentLifecycle.");
+	/**
+	 * Get the tracked state of the given fragment or null if the fragment is not registered.
+	 */
+	private static FragmentState findFragmentState(Fragment fragment) {
+		if (fragment instanceof FragmentLifecycleHolder) {
+			return (FragmentState) ((FragmentLifecycleHolder) fragment).getFragmentLifecycleState();
 		}
+		return fragments.get(fragment);
+	}
 
-		return lifecycle;
+	/**
+	 * Registers the fragment as current instance of the state.
+	 */
+	private static void attach(Fragment fragment, FragmentState state) {
+		fragments.put(fragment, state);
+		state.fragmentCount++;
+		if (fragment instanceof FragmentLifecycleHolder) {
+			((FragmentLifecycleHolder) fragment).setFragmentLifecycleState(state);
+		}
+	}
+
+	/**
+	 * Unregisters the fragment from its state.
+	 */
+	private static void detach(Fragment fragment, FragmentState state) {
+		fragments.remove(fragment);
+		state.fragmentCount--;
+		if (fragment instanceof FragmentLifecycleHolder) {
+			((FragmentLifecycleHolder) fragment).setFragmentLifecycleState(null);
+		}
+	}
+
+	/**
+	 * Destroys the lifecycles of fragments that have been garbage collected without being destroyed,
+	 * unless another fragment instance took over their state.
+	 * Destroying the lifecycles releases their listeners and stored events.
+	 */
+	private static void reclaimOrphans() {
+		FragmentState state;
+		while ((state = fragments.pollReclaimed()) != null) {
+			state.fragmentCount--;
+			if (state.fragmentCount == 0) {
+				log.warn("Fragment with id {} was garbage collected without being destroyed", state.id);
+				fragmentStates.remove(state.id);
+				state.destroy();
+			}
+		}
 	}
 
 	private static void logStatistics() {
 		if (log.isDebugEnabled()) {
-			log.debug("Current fragment to id mappings: {}", fragmentToId.size());
-			log.debug("Current session lifecycles: {}", lifecycles.get(SESSION).size());
-			log.debug("Current instance lifecycles: {}", lifecycles.get(INSTANCE).size());
+			int sessionLifecycles = 0;
+			int instanceLifecycles = 0;
+			for (FragmentState state : fragmentStates.values()) {
+				sessionLifecycles += state.sessionLifecycle != null ? 1 : 0;
+				instanceLifecycles += state.instanceLifecycle != null ? 1 : 0;
+			}
+			log.debug("Current fragment to id mappings: {}", fragments.size());
+			log.debug("Current fragment states: {}", fragmentStates.size());
+			log.debug("Current session lifecycles: {}", sessionLifecycles);
+			log.debug("Current instance lifecycles: {}", instanceLifecycles);
+		}
+	}
+
+	/**
+	 * State of a fragment and its lazily created lifecycles.
+	 */
+	private static class FragmentState extends ComponentState<FragmentLifecycle> {
+
+		/**
+		 * Number of registered fragment instances using this state.
+		 * Usually one, zero while the fragment is recreated.
+		 */
+		int fragmentCount = 0;
+
+		FragmentState(long id, boolean sessionNew, boolean sessionRestored) {
+			super(id, sessionNew, sessionRestored);
+		}
+
+		@Override
+		FragmentLifecycle newLifecycle() {
+			return new FragmentLifecycle();
 		}
 	}
 
@@ -132,83 +210,87 @@ public class FragmentLifecycle extends ActivityBasedLifecycle {
 
 		@Override
 		public void onFragmentCreate(Fragment fragment, Bundle savedInstanceState) {
-			Map<String, FragmentLifecycle> sessionLifecycles = lifecycles.get(SESSION);
-			Map<String, FragmentLifecycle> instanceLifecycles = lifecycles.get(INSTANCE);
-
-			// new fragment -> new lifecycles
+			// new fragment -> new state
 			if (savedInstanceState == null) {
-				String id = newFragmentId();
-				fragmentToId.put(fragment, id);
-
-				sessionLifecycles.put(id, new FragmentLifecycle());
-				instanceLifecycles.put(id, new FragmentLifecycle());
+				long id = LifecycleIds.next();
+				FragmentState state = new FragmentState(id, true, false);
+				fragmentStates.put(id, state);
+				attach(fragment, state);
 			// existing fragment id
 			} else {
-				String id = savedInstanceState.getString(STATE_LIFECYCLE_ID);
-				if (id == null) {
+				long id = savedInstanceState.getLong(STATE_LIFECYCLE_ID, 0L);
+				if (id == 0L) {
 					throw new IllegalArgumentException("Missing fragment id in instance state of fragment.");
 				}
-				fragmentToId.put(fragment, id);
 
-				// instance lifecycle is always new
-				instanceLifecycles.put(id, new FragmentLifecycle());
-
-				// session lifecycle might still exist
-				FragmentLifecycle sessionLifecycle;
-
-				if (sessionLifecycles.containsKey(id)) {
-					// existing lifecycle
-					sessionLifecycle = sessionLifecycles.get(id);
-					sessionLifecycle.restored = false;
+				// state and session lifecycle might still exist
+				FragmentState state = fragmentStates.get(id);
+				if (state != null) {
+					// existing state, a registered instance means the previous instance was never destroyed:
+					// drop its listeners, which usually reference it, so it can be garbage collected and reclaimed
+					if (state.fragmentCount > 0) {
+						log.warn("Fragment with id {} was recreated without being destroyed", id);
+						state.invalidateSession();
+					}
+					state.destroyInstance();
+					state.onRecreated();
 				} else {
-					// restored lifecycle
-					sessionLifecycle = new FragmentLifecycle();
-					sessionLifecycle.restored = true;
-					sessionLifecycles.put(id, sessionLifecycle);
+					// restored state
+					state = new FragmentState(id, false, true);
+					fragmentStates.put(id, state);
 				}
-
-				sessionLifecycle.newLifecycle = false;
+				attach(fragment, state);
 			}
+
+			// after attaching, so a recreated fragment keeps the state of a leaked previous instance
+			reclaimOrphans();
+		}
+
+		@Override
+		public void onFragmentStart(Fragment fragment) {
+			fragmentState(fragment).setState(LifecycleState.STARTED);
 		}
 
 		@Override
 		public void onFragmentResume(Fragment fragment) {
-			lifecycle(SESSION, fragment).setActive(true);
-			lifecycle(INSTANCE, fragment).setActive(true);
+			fragmentState(fragment).setState(LifecycleState.RESUMED);
 		}
 
 		@Override
 		public void onFragmentPause(Fragment fragment) {
-			lifecycle(SESSION, fragment).setActive(false);
-			lifecycle(INSTANCE, fragment).setActive(false);
+			fragmentState(fragment).setState(LifecycleState.STARTED);
+		}
+
+		@Override
+		public void onFragmentStop(Fragment fragment) {
+			fragmentState(fragment).setState(LifecycleState.CREATED);
 		}
 
 		@Override
 		public void onFragmentDestroy(Fragment fragment) {
-			String id = fragmentToId.get(fragment);
+			FragmentState state = fragmentState(fragment);
 
 			// instance lifecycles are always destroyed
-			FragmentLifecycle instanceLifecycle = lifecycle(INSTANCE, fragment);
-			lifecycles.get(INSTANCE).remove(id);
-			instanceLifecycle.destroy();
+			state.destroyInstance();
 
 			// session lifecycles are either destroyed or listeners got invalid
-			FragmentLifecycle sessionLifecycle = lifecycle(SESSION, fragment);
-
 			if (fragment.isRemoving() || fragment.getActivity().isFinishing()) {
-				lifecycles.get(SESSION).remove(id);
-				sessionLifecycle.destroy();
+				fragmentStates.remove(state.id);
+				state.destroy();
 			} else {
-				sessionLifecycle.invalidateEventListeners();
+				state.invalidateSession();
 			}
 
-			// remove the fragment to id mapping
-			fragmentToId.remove(fragment);
+			// remove the fragment to state mapping
+			detach(fragment, state);
 		}
 
 		@Override
 		public void onFragmentSaveInstanceState(Fragment fragment, Bundle outState) {
-			outState.putString(STATE_LIFECYCLE_ID, fragmentToId.get(fragment));
+			FragmentState state = findFragmentState(fragment);
+			if (state != null) {
+				outState.putLong(STATE_LIFECYCLE_ID, state.id);
+			}
 		}
 	}
 
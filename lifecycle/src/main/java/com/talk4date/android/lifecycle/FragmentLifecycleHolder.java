@@ -0,0 +1,16 @@
+package com.talk4date.android.lifecycle;
+
+/**
+ * Implemented by fragments that keep their lifecycle state themselves,
+ * so {@link FragmentLifecycle} can find it without a registry lookup.
+ *
+ * The state is opaque and only managed by {@link FragmentLifecycle}, implementations just store it in a field.
+ *
+ * @see com.talk4date.android.lifecycle.ui.BaseLifecycleDispatchingFragment
+ */
+public interface FragmentLifecycleHolder {
+
+	Object getFragmentLifecycleState();
+
+	void setFragmentLifecycleState(Object state);
+}
@@ -0,0 +1,33 @@
+package com.talk4date.android.lifecycle;
+
+import java.security.SecureRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Generates the ids under which activities and fragments find their session lifecycles in the saved state.
+ */
+final class LifecycleIds {
+
+	/**
+	 * The last used id.
+	 *
+	 * Every process starts its ids at a random position, so ids don't clash with ids restored from the saved state
+	 * of an earlier process. The clock can't be used for this, it may be set back between two processes.
+	 * Two processes only clash if their starts are closer than the number of ids they create,
+	 * which is negligible in the 2^64 possible starts.
+	 */
+	private static final AtomicLong lastId = new AtomicLong(new SecureRandom().nextLong());
+
+	private LifecycleIds() {}
+
+	/**
+	 * Get a new globally unique id, never 0.
+	 */
+	static long next() {
+		long id;
+		do {
+			id = lastId.incrementAndGet();
+		} while (id == 0L);
+		return id;
+	}
+}
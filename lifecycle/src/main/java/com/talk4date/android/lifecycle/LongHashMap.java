@@ -0,0 +1,183 @@
+package com.talk4date.android.lifecycle;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Hash map with primitive long keys using open addressing with linear probing.
+ * Keys are neither boxed nor wrapped in entry objects.
+ *
+ * The key 0 is reserved to mark free slots and can't be used.
+ *
+ * Not thread safe, only used on the main thread.
+ *
+ * @param <V> The type of values in the map.
+ */
+final class LongHashMap<V> {
+
+	private static final int DEFAULT_CAPACITY = 16;
+
+	private long[] keys;
+
+	private Object[] values;
+
+	/**
+	 * Number of entries in the map.
+	 */
+	private int size = 0;
+
+	LongHashMap() {
+		this.keys = new long[DEFAULT_CAPACITY];
+		this.values = new Object[DEFAULT_CAPACITY];
+	}
+
+	/**
+	 * @return The value for the key or null if there is none.
+	 */
+	@SuppressWarnings("unchecked")
+	V get(long key) {
+		int index = indexOf(key);
+		return index < 0 ? null : (V) values[index];
+	}
+
+	boolean containsKey(long key) {
+		return indexOf(key) >= 0;
+	}
+
+	/**
+	 * Associates the value with the key, replacing any previous value.
+	 *
+	 * @return The previous value or null if there was none.
+	 */
+	@SuppressWarnings("unchecked")
+	V put(long key, V value) {
+		checkKey(key);
+		int mask = keys.length - 1;
+		int index = slot(key, mask);
+		while (keys[index] != 0) {
+			if (keys[index] == key) {
+				V previous = (V) values[index];
+				values[index] = value;
+				return previous;
+			}
+			index = (index + 1) & mask;
+		}
+
+		keys[index] = key;
+		values[index] = value;
+		size++;
+		// keep the load factor at or below 1/2 so probe sequences stay short
+		if (size * 2 > keys.length) {
+			resize(keys.length * 2);
+		}
+		return null;
+	}
+
+	/**
+	 * Removes the entry for the key.
+	 *
+	 * @return The removed value or null if there was none.
+	 */
+	@SuppressWarnings("unchecked")
+	V remove(long key) {
+		int index = indexOf(key);
+		if (index < 0) {
+			return null;
+		}
+		V previous = (V) values[index];
+		deleteSlot(index);
+		size--;
+		return previous;
+	}
+
+	int size() {
+		return size;
+	}
+
+	/**
+	 * A copy of all values in no specific order.
+	 */
+	@SuppressWarnings("unchecked")
+	List<V> values() {
+		List<V> result = new ArrayList<>(size);
+		for (int i = 0; i < keys.length; i++) {
+			if (keys[i] != 0) {
+				result.add((V) values[i]);
+			}
+		}
+		return result;
+	}
+
+	private int indexOf(long key) {
+		checkKey(key);
+		int mask = keys.length - 1;
+		int index = slot(key, mask);
+		while (keys[index] != 0) {
+			if (keys[index] == key) {
+				return index;
+			}
+			index = (index + 1) & mask;
+		}
+		return -1;
+	}
+
+	/**
+	 * Frees the slot and shifts following entries of the probe sequence back,
+	 * so lookups never have to skip over deleted slots.
+	 */
+	private void deleteSlot(int free) {
+		int mask = keys.length - 1;
+		int index = free;
+		while (true) {
+			index = (index + 1) & mask;
+			long key = keys[index];
+			if (key == 0) {
+				break;
+			}
+			int home = slot(key, mask);
+			// move the entry if its home slot is not cyclically between the free slot and its current slot
+			if ((index > free && (home <= free || home > index)) || (index < free && home <= free && home > index)) {
+				keys[free] = key;
+				values[free] = values[index];
+				free = index;
+			}
+		}
+		keys[free] = 0;
+		values[free] = null;
+	}
+
+	private void resize(int capacity) {
+		long[] oldKeys = keys;
+		Object[] oldValues = values;
+		keys = new long[capacity];
+		values = new Object[capacity];
+		int mask = capacity - 1;
+		for (int i = 0; i < oldKeys.length; i++) {
+			long key = oldKeys[i];
+			if (key != 0) {
+				int index = slot(key, mask);
+				while (keys[index] != 0) {
+					index = (index + 1) & mask;
+				}
+				keys[index] = key;
+				values[index] = oldValues[i];
+			}
+		}
+		Arrays.fill(oldValues, null);
+	}
+
+	/**
+	 * Home slot of the key. Mixes the bits, sequential keys would otherwise only differ in the lowest bits.
+	 */
+	private static int slot(long key, int mask) {
+		long hash = key * 0x9E3779B97F4A7C15L;
+		return (int) (hash ^ (hash >>> 32)) & mask;
+	}
+
+	private static void checkKey(long key) {
+		if (key == 0) {
+			throw new IllegalArgumentException("The key 0 is reserved");
+		}
+	}
+}
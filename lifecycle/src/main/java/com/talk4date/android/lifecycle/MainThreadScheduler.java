@@ -0,0 +1,39 @@
+package com.talk4date.android.lifecycle;
+
+import android.os.Handler;
+import android.os.Looper;
+
+/**
+ * Dispatch scheduler running tasks on the Android main thread.
+ * All users share one handler instance.
+ */
+public class MainThreadScheduler implements DispatchScheduler {
+
+	private static final MainThreadScheduler instance = new MainThreadScheduler();
+
+	private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+	private MainThreadScheduler() {}
+
+	/**
+	 * Get the shared main thread scheduler.
+	 */
+	public static MainThreadScheduler get() {
+		return instance;
+	}
+
+	@Override
+	public boolean isDispatchThread() {
+		return Looper.myLooper() == Looper.getMainLooper();
+	}
+
+	@Override
+	public void post(Runnable task) {
+		mainHandler.post(task);
+	}
+
+	@Override
+	public void postDelayed(Runnable task, long delayMillis) {
+		mainHandler.postDelayed(task, delayMillis);
+	}
+}
@@ -1,22 +1,41 @@
 package com.talk4date.android.lifecycle;
 
-import android.os.Handler;
-import android.os.Looper;
-
-import java.util.ArrayList;
-import java.util.List;
-
 /**
  * An event receiver which is not managed by a lifecycle, can be used if a event receiver is required
  * but no lifecycle is required.
  */
 public abstract class UnmanagedEventReceiver<T> implements EventReceiver<T>, EventListener<T> {
 
-	private Handler mainHandler = new Handler(Looper.getMainLooper());
+	private final DispatchScheduler scheduler;
+
+	private final CoalescingEventQueue<T> dispatchThreadQueue;
 
 	private boolean destroyed = false;
 
-	List<OnDestroyListener<T>> listeners = new ArrayList<>();
+	/**
+	 * Copy on write, so listeners can remove themselves while they are notified.
+	 */
+	private final ListenerRegistry<OnDestroyListener<T>> listeners = ListenerRegistry.forOnDestroyListeners();
+
+	/**
+	 * Creates an event receiver that receives its events on the main thread.
+	 */
+	public UnmanagedEventReceiver() {
+		this(MainThreadScheduler.get());
+	}
+
+	/**
+	 * Creates an event receiver that receives its events on the thread of the given scheduler.
+	 */
+	public UnmanagedEventReceiver(DispatchScheduler scheduler) {
+		this.scheduler = scheduler;
+		this.dispatchThreadQueue = new CoalescingEventQueue<>(scheduler, new Consumer<T>() {
+			@Override
+			public void consume(T event) {
+				onEvent(event);
+			}
+		});
+	}
 
 	@Override
 	public void postEvent(final T event) {
@@ -24,15 +43,10 @@ public abstract class UnmanagedEventReceiver<T> implements EventReceiver<T>, Eve
 			return;
 		}
 
-		if (Looper.myLooper() == Looper.getMainLooper()) {
+		if (scheduler.isDispatchThread()) {
 			onEvent(event);
 		} else {
-			mainHandler.post(new Runnable() {
-				@Override
-				public void run() {
-					onEvent(event);
-				}
-			});
+			dispatchThreadQueue.post(event);
 		}
 	}
 
@@ -47,7 +61,7 @@ public abstract class UnmanagedEventReceiver<T> implements EventReceiver<T>, Eve
 	}
 
 	private void notifyOnDestroyListeners() {
-		for (OnDestroyListener listener : listeners) {
+		for (OnDestroyListener<T> listener : listeners.snapshot()) {
 			listener.onDestroy(this);
 		}
 	}
@@ -0,0 +1,170 @@
+package com.talk4date.android.lifecycle;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+
+/**
+ * Hash map that compares keys by identity and only holds weak references to them.
+ *
+ * In contrast to {@link java.util.WeakHashMap} the keys hashCode and equals are never called.
+ * Entries of garbage collected keys are not removed silently, they are handed out by {@link #pollReclaimed()}
+ * so the owner can release whatever resources the values hold.
+ *
+ * Not thread safe, only used on the main thread.
+ *
+ * @param <K> The type of keys.
+ * @param <V> The type of values.
+ */
+final class WeakIdentityMap<K, V> {
+
+	private static final int DEFAULT_CAPACITY = 16;
+
+	private final ReferenceQueue<K> queue = new ReferenceQueue<>();
+
+	private Entry<K, V>[] table;
+
+	/**
+	 * Number of entries in the map, including entries whose keys have been collected but were not polled yet.
+	 */
+	private int size = 0;
+
+	WeakIdentityMap() {
+		this.table = newTable(DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * @return The value for the key or null if there is none.
+	 */
+	V get(K key) {
+		int hash = System.identityHashCode(key);
+		for (Entry<K, V> entry = table[hash & (table.length - 1)]; entry != null; entry = entry.next) {
+			if (entry.hash == hash && entry.get() == key) {
+				return entry.value;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Associates the value with the key, replacing any previous value.
+	 *
+	 * @return The previous value or null if there was none.
+	 */
+	V put(K key, V value) {
+		int hash = System.identityHashCode(key);
+		int index = hash & (table.length - 1);
+		for (Entry<K, V> entry = table[index]; entry != null; entry = entry.next) {
+			if (entry.hash == hash && entry.get() == key) {
+				V previous = entry.value;
+				entry.value = value;
+				return previous;
+			}
+		}
+
+		table[index] = new Entry<>(key, hash, value, table[index], queue);
+		size++;
+		if (size > table.length * 3 / 4) {
+			resize();
+		}
+		return null;
+	}
+
+	/**
+	 * Removes the entry for the key.
+	 *
+	 * @return The removed value or null if there was none.
+	 */
+	V remove(K key) {
+		int hash = System.identityHashCode(key);
+		int index = hash & (table.length - 1);
+		Entry<K, V> previous = null;
+		for (Entry<K, V> entry = table[index]; entry != null; previous = entry, entry = entry.next) {
+			if (entry.hash == hash && entry.get() == key) {
+				unlink(index, previous, entry);
+				// a cleared reference is never enqueued, so the entry is not reported as reclaimed later
+				entry.clear();
+				V value = entry.value;
+				entry.value = null;
+				return value;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Removes the next entry whose key has been garbage collected without being removed.
+	 *
+	 * @return The value of the removed entry or null if there are no more such entries.
+	 */
+	@SuppressWarnings("unchecked")
+	V pollReclaimed() {
+		Entry<K, V> reclaimed;
+		while ((reclaimed = (Entry<K, V>) queue.poll()) != null) {
+			int index = reclaimed.hash & (table.length - 1);
+			Entry<K, V> previous = null;
+			for (Entry<K, V> entry = table[index]; entry != null; previous = entry, entry = entry.next) {
+				if (entry == reclaimed) {
+					unlink(index, previous, entry);
+					V value = entry.value;
+					entry.value = null;
+					return value;
+				}
+			}
+		}
+		return null;
+	}
+
+	int size() {
+		return size;
+	}
+
+	private void unlink(int index, Entry<K, V> previous, Entry<K, V> entry) {
+		if (previous == null) {
+			table[index] = entry.next;
+		} else {
+			previous.next = entry.next;
+		}
+		entry.next = null;
+		size--;
+	}
+
+	private void resize() {
+		Entry<K, V>[] oldTable = table;
+		Entry<K, V>[] newTable = newTable(oldTable.length * 2);
+		for (Entry<K, V> head : oldTable) {
+			Entry<K, V> entry = head;
+			while (entry != null) {
+				Entry<K, V> next = entry.next;
+				int index = entry.hash & (newTable.length - 1);
+				entry.next = newTable[index];
+				newTable[index] = entry;
+				entry = next;
+			}
+		}
+		table = newTable;
+	}
+
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	private static <K, V> Entry<K, V>[] newTable(int length) {
+		return new Entry[length];
+	}
+
+	private static final class Entry<K, V> extends WeakReference<K> {
+
+		/**
+		 * Identity hash of the key, kept because the key might be gone when the entry is removed.
+		 */
+		final int hash;
+
+		V value;
+
+		Entry<K, V> next;
+
+		Entry(K key, int hash, V value, Entry<K, V> next, ReferenceQueue<K> queue) {
+			super(key, queue);
+			this.hash = hash;
+			this.value = value;
+			this.next = next;
+		}
+	}
+}
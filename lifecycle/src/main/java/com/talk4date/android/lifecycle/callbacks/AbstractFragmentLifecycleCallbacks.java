@@ -7,13 +7,57 @@ import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
 
+import java.util.concurrent.ConcurrentHashMap;
+
 /**
  * Abstract implementation of {@link com.talk4date.android.lifecycle.callbacks.FragmentLifecycleCallbacks}.
  * 
  * All methods do nothing by default. Subclasses do not need to call through to super.
+ *
+ * The {@link FragmentLifecycleDispatcher} only notifies the callbacks about the events in {@link #getEventMask()},
+ * by default these are the events whose methods are overridden.
  */
 public class AbstractFragmentLifecycleCallbacks implements FragmentLifecycleCallbacks {
-	
+
+	/**
+	 * Derived event masks by callbacks class, reflection is only done once per class.
+	 */
+	private static final ConcurrentHashMap<Class<?>, Integer> derivedEventMasks = new ConcurrentHashMap<>();
+
+	/**
+	 * The events for which these callbacks want to be notified.
+	 * Override to declare the mask explicitly.
+	 *
+	 * The default implementation looks up the callback methods by name. The library ships a consumer ProGuard rule
+	 * that keeps their names in minified apps.
+	 *
+	 * @return A mask of {@link FragmentLifecycleEvent}s, by default all events whose methods are overridden.
+	 */
+	public int getEventMask() {
+		Class<?> type = getClass();
+		Integer mask = derivedEventMasks.get(type);
+		if (mask == null) {
+			mask = deriveEventMask(type);
+			derivedEventMasks.put(type, mask);
+		}
+		return mask;
+	}
+
+	private static int deriveEventMask(Class<?> type) {
+		int mask = 0;
+		for (FragmentLifecycleEvent event : FragmentLifecycleEvent.values()) {
+			try {
+				Class<?> declaringClass = type.getMethod(event.getMethodName(), event.getParameterTypes()).getDeclaringClass();
+				if (declaringClass != AbstractFragmentLifecycleCallbacks.class) {
+					mask |= event.mask();
+				}
+			} catch (NoSuchMethodException e) {
+				throw new IllegalStateException("Missing callback method " + event.getMethodName(), e);
+			}
+		}
+		return mask;
+	}
+
 	@Override
 	public void onFragmentAttach(Fragment fragment, Activity activity) {}
 
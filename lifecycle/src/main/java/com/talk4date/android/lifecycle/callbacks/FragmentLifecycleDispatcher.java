@@ -7,26 +7,39 @@ import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
 
-import java.util.HashMap;
-import java.util.LinkedList;
-import java.util.List;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Registry for fragment lifecycle callbacks.
+ *
+ * Callbacks are kept in immutable arrays that are replaced on every change.
+ * Dispatching takes no locks and allocates nothing, callbacks can be added and removed from any thread,
+ * even by a callback while it is notified. Changes during a dispatch take effect with the next event.
  */
 public class FragmentLifecycleDispatcher implements FragmentLifecycleCallbacks {
 
+	private static final FragmentLifecycleCallbacks[] NO_CALLBACKS = new FragmentLifecycleCallbacks[0];
+
 	private static FragmentLifecycleDispatcher instance = new FragmentLifecycleDispatcher();
 
 	/**
 	 * Callbacks that get notified for every fragment.
+	 * Only accessed while holding the lock of the dispatcher.
 	 */
-	private LinkedList<FragmentLifecycleCallbacks> callbacks = new LinkedList<>();
+	private FragmentLifecycleCallbacks[] callbacks = NO_CALLBACKS;
+
+	/**
+	 * The callbacks for every fragment, split up by the events they are interested in.
+	 * Indexed by the ordinal of the {@link FragmentLifecycleEvent} and rebuilt whenever {@link #callbacks} changes.
+	 */
+	private volatile FragmentLifecycleCallbacks[][] callbacksByEvent = byEvent(NO_CALLBACKS);
 
 	/**
 	 * Callbacks that only get notified for the fragment they registered.
+	 * Only updated while holding the lock of the dispatcher, read without locking.
 	 */
-	private HashMap<Fragment, LinkedList<FragmentLifecycleCallbacks>> byFragmentCallbacks = new HashMap<>();
+	private ConcurrentHashMap<Fragment, FragmentLifecycleCallbacks[]> byFragmentCallbacks = new ConcurrentHashMap<>();
 
 	private FragmentLifecycleDispatcher() {}
 
@@ -46,12 +59,8 @@ public class FragmentLifecycleDispatcher implements FragmentLifecycleCallbacks {
 	 * @param callbacks The callbacks to trigger.
 	 */
 	public synchronized void addFragmentLifecycleCallbacks(Fragment fragment, FragmentLifecycleCallbacks callbacks) {
-		LinkedList<FragmentLifecycleCallbacks> callbacksForFragment = byFragmentCallbacks.get(fragment);
-		if (callbacksForFragment == null) {
-			callbacksForFragment = new LinkedList<>();
-			byFragmentCallbacks.put(fragment, callbacksForFragment);
-		}
-		callbacksForFragment.add(callbacks);
+		FragmentLifecycleCallbacks[] callbacksForFragment = byFragmentCallbacks.get(fragment);
+		byFragmentCallbacks.put(fragment, added(callbacksForFragment != null ? callbacksForFragment : NO_CALLBACKS, callbacks));
 	}
 
 	/**
@@ -59,33 +68,115 @@ public class FragmentLifecycleDispatcher implements FragmentLifecycleCallbacks {
 	 * @see #addFragmentLifecycleCallbacks(Fragment, FragmentLifecycleCallbacks)
 	 */
 	public synchronized void removeFragmentLifecycleCallbacks(Fragment fragment, FragmentLifecycleCallbacks callbacks) {
-		List<FragmentLifecycleCallbacks> callbacksForFragment = byFragmentCallbacks.get(fragment);
+		FragmentLifecycleCallbacks[] callbacksForFragment = byFragmentCallbacks.get(fragment);
 		if (callbacksForFragment != null) {
-			callbacksForFragment.remove(callbacks);
+			FragmentLifecycleCallbacks[] remaining = removed(callbacksForFragment, callbacks);
+			if (remaining.length == 0) {
+				byFragmentCallbacks.remove(fragment);
+			} else {
+				byFragmentCallbacks.put(fragment, remaining);
+			}
 		}
 	}
 
 	/**
 	 * Adds fragment lifecycle callbacks which are notified about all fragment lifecycle events.
+	 *
+	 * Callbacks extending {@link AbstractFragmentLifecycleCallbacks} are only notified about the events
+	 * in their {@link AbstractFragmentLifecycleCallbacks#getEventMask() event mask}.
 	 */
 	public synchronized void addFragmentLifecycleCallbacks(FragmentLifecycleCallbacks callbacks) {
-		this.callbacks.add(callbacks);
+		this.callbacks = added(this.callbacks, callbacks);
+		this.callbacksByEvent = byEvent(this.callbacks);
 	}
 
 	/**
 	 * Removes previously added lifecycle callbacks.
 	 */
 	public synchronized void removeFragmentLifecycleCallbacks(FragmentLifecycleCallbacks callbacks) {
-		this.callbacks.remove(callbacks);
+		this.callbacks = removed(this.callbacks, callbacks);
+		this.callbacksByEvent = byEvent(this.callbacks);
+	}
+
+	/**
+	 * Splits up the callbacks by the events they are interested in.
+	 */
+	private static FragmentLifecycleCallbacks[][] byEvent(FragmentLifecycleCallbacks[] callbacks) {
+		int[] eventMasks = new int[callbacks.length];
+		for (int i = 0; i < callbacks.length; i++) {
+			eventMasks[i] = eventMask(callbacks[i]);
+		}
+
+		FragmentLifecycleEvent[] events = FragmentLifecycleEvent.values();
+		FragmentLifecycleCallbacks[][] byEvent = new FragmentLifecycleCallbacks[events.length][];
+		for (FragmentLifecycleEvent event : events) {
+			int count = 0;
+			for (int eventMask : eventMasks) {
+				if (event.isIn(eventMask)) {
+					count++;
+				}
+			}
+
+			FragmentLifecycleCallbacks[] interested = count == 0 ? NO_CALLBACKS : new FragmentLifecycleCallbacks[count];
+			int index = 0;
+			for (int i = 0; i < callbacks.length; i++) {
+				if (event.isIn(eventMasks[i])) {
+					interested[index++] = callbacks[i];
+				}
+			}
+			byEvent[event.ordinal()] = interested;
+		}
+		return byEvent;
+	}
+
+	private static int eventMask(FragmentLifecycleCallbacks callbacks) {
+		if (callbacks instanceof AbstractFragmentLifecycleCallbacks) {
+			return ((AbstractFragmentLifecycleCallbacks) callbacks).getEventMask();
+		}
+		return FragmentLifecycleEvent.ALL;
+	}
+
+	/**
+	 * The callbacks for every fragment that are interested in the given event.
+	 */
+	private FragmentLifecycleCallbacks[] callbacks(FragmentLifecycleEvent event) {
+		return callbacksByEvent[event.ordinal()];
+	}
+
+	/**
+	 * A copy of the array with the callbacks appended.
+	 */
+	private static FragmentLifecycleCallbacks[] added(FragmentLifecycleCallbacks[] current, FragmentLifecycleCallbacks callbacks) {
+		FragmentLifecycleCallbacks[] updated = Arrays.copyOf(current, current.length + 1);
+		updated[current.length] = callbacks;
+		return updated;
+	}
+
+	/**
+	 * A copy of the array without the first occurrence of the callbacks, or the array itself if they are not contained.
+	 */
+	private static FragmentLifecycleCallbacks[] removed(FragmentLifecycleCallbacks[] current, FragmentLifecycleCallbacks callbacks) {
+		for (int i = 0; i < current.length; i++) {
+			if (current[i].equals(callbacks)) {
+				if (current.length == 1) {
+					return NO_CALLBACKS;
+				}
+				FragmentLifecycleCallbacks[] updated = new FragmentLifecycleCallbacks[current.length - 1];
+				System.arraycopy(current, 0, updated, 0, i);
+				System.arraycopy(current, i + 1, updated, i, current.length - i - 1);
+				return updated;
+			}
+		}
+		return current;
 	}
 
 	@Override
 	public void onFragmentAttach(Fragment fragment, Activity activity) {
-		for (FragmentLifecycleCallbacks callback : this.callbacks) {
+		for (FragmentLifecycleCallbacks callback : callbacks(FragmentLifecycleEvent.ATTACH)) {
 			callback.onFragmentAttach(fragment, activity);
 		}
 
-		List<FragmentLifecycleCallbacks> callbacksForFragment = byFragmentCallbacks.get(fragment);
+		FragmentLifecycleCallbacks[] callbacksForFragment = byFragmentCallbacks.get(fragment);
 		if (callbacksForFragment != null) {
 			for (FragmentLifecycleCallbacks callback : callbacksForFragment) {
 				callback.onFragmentAttach(fragment, activity);
@@ -95,11 +186,11 @@ public class FragmentLifecycleDispatcher implements FragmentLifecycleCallbacks {
 
 	@Override
 	public void onFragmentCreate(Fragment fragment, Bundle savedInstanceState) {
-		for (FragmentLifecycleCallbacks callback : this.callbacks) {
+		for (FragmentLifecycleCallbacks callback : callbacks(FragmentLifecycleEvent.CREATE)) {
 			callback.onFragmentCreate(fragment, savedInstanceState);
 		}
 
-		List<FragmentLifecycleCallbacks> callbacksForFragment = byFragmentCallbacks.get(fragment);
+		FragmentLifecycleCallbacks[] callbacksForFragment = byFragmentCallbacks.get(fragment);
 		if (callbacksForFragment != null) {
 			for (FragmentLifecycleCallbacks callback : callbacksForFragment) {
 				callback.onFragmentCreate(fragment, savedInstanceState);
@@ -109,11 +200,11 @@ public class FragmentLifecycleDispatcher implements FragmentLifecycleCallbacks {
 
 	@Override
 	public void onFragmentViewCreated(Fragment fragment, View view, Bundle savedInstanceState) {
-		for (FragmentLifecycleCallbacks callback : this.callbacks) {
+		for (FragmentLifecycleCallbacks callback : callbacks(FragmentLifecycleEvent.VIEW_CREATED)) {
 			callback.onFragmentViewCreated(fragment, view, savedInstanceState);
 		}
 
-		List<FragmentLifecycleCallbacks> callbacksForFragment = byFragmentCallbacks.get(fragment);
+		FragmentLifecycleCallbacks[] callbacksForFragment = byFragmentCallbacks.get(fragment);
 		if (callbacksForFragment != null) {
 			for (FragmentLifecycleCallbacks callback : callbacksForFragment) {
 				callback.onFragmentViewCreated(fragment, view, savedInstanceState);
@@ -123,11 +214,11 @@ public class FragmentLifecycleDispatcher implements FragmentLifecycleCallbacks {
 
 	@Override
 	public void onFragmentActivityCreated(Fragment fragment, Bundle savedInstanceState) {
-		for (FragmentLifecycleCallbacks callback : this.callbacks) {
+		for (FragmentLifecycleCallbacks callback : callbacks(FragmentLifecycleEvent.ACTIVITY_CREATED)) {
 			callback.onFragmentActivityCreated(fragment, savedInstanceState);
 		}
 
-		List<FragmentLifecycleCallbacks> callbacksForFragment = byFragmentCallbacks.get(fragment);
+		FragmentLifecycleCallbacks[] callbacksForFragment = byFragmentCallbacks.get(fragment);
 		if (callbacksForFragment != null) {
 			for (FragmentLifecycleCallbacks callback : callbacksForFragment) {
 				callback.onFragmentActivityCreated(fragment, savedInstanceState);
@@ -137,11 +228,11 @@ public class FragmentLifecycleDispatcher implements FragmentLifecycleCallbacks {
 
 	@Override
 	public void onFragmentViewStateRestored(Fragment fragment, Bundle savedInstanceState) {
-		for (FragmentLifecycleCallbacks callback : this.callbacks) {
+		for (FragmentLifecycleCallbacks callback : callbacks(FragmentLifecycleEvent.VIEW_STATE_RESTORED)) {
 			callback.onFragmentViewStateRestored(fragment, savedInstanceState);
 		}
 
-		List<FragmentLifecycleCallbacks> callbacksForFragment = byFragmentCallbacks.get(fragment);
+		FragmentLifecycleCallbacks[] callbacksForFragment = byFragmentCallbacks.get(fragment);
 		if (callbacksForFragment != null) {
 			for (FragmentLifecycleCallbacks callback : callbacksForFragment) {
 				callback.onFragmentViewStateRestored(fragment, savedInstanceState);
@@ -151,11 +242,11 @@ public class FragmentLifecycleDispatcher implements FragmentLifecycleCallbacks {
 
 	@Override
 	public void onFragmentStart(Fragment fragment) {
-		for (FragmentLifecycleCallbacks callback : this.callbacks) {
+		for (FragmentLifecycleCallbacks callback : callbacks(FragmentLifecycleEvent.START)) {
 			callback.onFragmentStart(fragment);
 		}
 
-		List<FragmentLifecycleCallbacks> callbacksForFragment = byFragmentCallbacks.get(fragment);
+		FragmentLifecycleCallbacks[] callbacksForFragment = byFragmentCallbacks.get(fragment);
 		if (callbacksForFragment != null) {
 			for (FragmentLifecycleCallbacks callback : callbacksForFragment) {
 				callback.onFragmentStart(fragment);
@@ -165,11 +256,11 @@ public class FragmentLifecycleDispatcher implements FragmentLifecycleCallbacks {
 
 	@Override
 	public void onFragmentResume(Fragment fragment) {
-		for (FragmentLifecycleCallbacks callback : this.callbacks) {
+		for (FragmentLifecycleCallbacks callback : callbacks(FragmentLifecycleEvent.RESUME)) {
 			callback.onFragmentResume(fragment);
 		}
 
-		List<FragmentLifecycleCallbacks> callbacksForFragment = byFragmentCallbacks.get(fragment);
+		FragmentLifecycleCallbacks[] callbacksForFragment = byFragmentCallbacks.get(fragment);
 		if (callbacksForFragment != null) {
 			for (FragmentLifecycleCallbacks callback : callbacksForFragment) {
 				callback.onFragmentResume(fragment);
@@ -179,11 +270,11 @@ public class FragmentLifecycleDispatcher implements FragmentLifecycleCallbacks {
 
 	@Override
 	public void onFragmentPause(Fragment fragment) {
-		for (FragmentLifecycleCallbacks callback : this.callbacks) {
+		for (FragmentLifecycleCallbacks callback : callbacks(FragmentLifecycleEvent.PAUSE)) {
 			callback.onFragmentPause(fragment);
 		}
 
-		List<FragmentLifecycleCallbacks> callbacksForFragment = byFragmentCallbacks.get(fragment);
+		FragmentLifecycleCallbacks[] callbacksForFragment = byFragmentCallbacks.get(fragment);
 		if (callbacksForFragment != null) {
 			for (FragmentLifecycleCallbacks callback : callbacksForFragment) {
 				callback.onFragmentPause(fragment);
@@ -193,11 +284,11 @@ public class FragmentLifecycleDispatcher implements FragmentLifecycleCallbacks {
 
 	@Override
 	public void onFragmentSaveInstanceState(Fragment fragment, Bundle outState) {
-		for (FragmentLifecycleCallbacks callback : this.callbacks) {
+		for (FragmentLifecycleCallbacks callback : callbacks(FragmentLifecycleEvent.SAVE_INSTANCE_STATE)) {
 			callback.onFragmentSaveInstanceState(fragment, outState);
 		}
 
-		List<FragmentLifecycleCallbacks> callbacksForFragment = byFragmentCallbacks.get(fragment);
+		FragmentLifecycleCallbacks[] callbacksForFragment = byFragmentCallbacks.get(fragment);
 		if (callbacksForFragment != null) {
 			for (FragmentLifecycleCallbacks callback : callbacksForFragment) {
 				callback.onFragmentSaveInstanceState(fragment, outState);
@@ -207,11 +298,11 @@ public class FragmentLifecycleDispatcher implements FragmentLifecycleCallbacks {
 
 	@Override
 	public void onFragmentStop(Fragment fragment) {
-		for (FragmentLifecycleCallbacks callback : this.callbacks) {
+		for (FragmentLifecycleCallbacks callback : callbacks(FragmentLifecycleEvent.STOP)) {
 			callback.onFragmentStop(fragment);
 		}
 
-		List<FragmentLifecycleCallbacks> callbacksForFragment = byFragmentCallbacks.get(fragment);
+		FragmentLifecycleCallbacks[] callbacksForFragment = byFragmentCallbacks.get(fragment);
 		if (callbacksForFragment != null) {
 			for (FragmentLifecycleCallbacks callback : callbacksForFragment) {
 				callback.onFragmentStop(fragment);
@@ -221,11 +312,11 @@ public class FragmentLifecycleDispatcher implements FragmentLifecycleCallbacks {
 
 	@Override
 	public void onFragmentDestroyView(Fragment fragment) {
-		for (FragmentLifecycleCallbacks callback : this.callbacks) {
+		for (FragmentLifecycleCallbacks callback : callbacks(FragmentLifecycleEvent.DESTROY_VIEW)) {
 			callback.onFragmentDestroyView(fragment);
 		}
 
-		List<FragmentLifecycleCallbacks> callbacksForFragment = byFragmentCallbacks.get(fragment);
+		FragmentLifecycleCallbacks[] callbacksForFragment = byFragmentCallbacks.get(fragment);
 		if (callbacksForFragment != null) {
 			for (FragmentLifecycleCallbacks callback : callbacksForFragment) {
 				callback.onFragmentDestroyView(fragment);
@@ -235,27 +326,35 @@ public class FragmentLifecycleDispatcher implements FragmentLifecycleCallbacks {
 
 	@Override
 	public void onFragmentDestroy(Fragment fragment) {
-		for (FragmentLifecycleCallbacks callback : this.callbacks) {
+		for (FragmentLifecycleCallbacks callback : callbacks(FragmentLifecycleEvent.DESTROY)) {
 			callback.onFragmentDestroy(fragment);
 		}
 
-		List<FragmentLifecycleCallbacks> callbacksForFragment = byFragmentCallbacks.get(fragment);
+		FragmentLifecycleCallbacks[] callbacksForFragment = byFragmentCallbacks.get(fragment);
 		if (callbacksForFragment != null) {
 			for (FragmentLifecycleCallbacks callback : callbacksForFragment) {
 				callback.onFragmentDestroy(fragment);
 			}
 		}
 
+		removeAllFragmentLifecycleCallbacks(fragment);
+	}
+
+	/**
+	 * Removes all callbacks registered for the fragment, under the same lock as adding and removing single callbacks
+	 * so a concurrent update of the callbacks for the fragment is not lost or resurrected.
+	 */
+	private synchronized void removeAllFragmentLifecycleCallbacks(Fragment fragment) {
 		byFragmentCallbacks.remove(fragment);
 	}
 
 	@Override
 	public void onFragmentDetach(Fragment fragment) {
-		for (FragmentLifecycleCallbacks callback : this.callbacks) {
+		for (FragmentLifecycleCallbacks callback : callbacks(FragmentLifecycleEvent.DETACH)) {
 			callback.onFragmentDetach(fragment);
 		}
 
-		List<FragmentLifecycleCallbacks> callbacksForFragment = byFragmentCallbacks.get(fragment);
+		FragmentLifecycleCallbacks[] callbacksForFragment = byFragmentCallbacks.get(fragment);
 		if (callbacksForFragment != null) {
 			for (FragmentLifecycleCallbacks callback : callbacksForFragment) {
 				callback.onFragmentDetach(fragment);
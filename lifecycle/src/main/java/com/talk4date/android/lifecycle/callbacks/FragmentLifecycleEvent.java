@@ -0,0 +1,81 @@
+package com.talk4date.android.lifecycle.callbacks;
+
+import android.app.Activity;
+import android.os.Bundle;
+import android.support.v4.app.Fragment;
+import android.view.View;
+
+/**
+ * The events of {@link FragmentLifecycleCallbacks}, used to build event masks.
+ *
+ * @see AbstractFragmentLifecycleCallbacks#getEventMask()
+ */
+public enum FragmentLifecycleEvent {
+
+	ATTACH("onFragmentAttach", Fragment.class, Activity.class),
+	CREATE("onFragmentCreate", Fragment.class, Bundle.class),
+	VIEW_CREATED("onFragmentViewCreated", Fragment.class, View.class, Bundle.class),
+	ACTIVITY_CREATED("onFragmentActivityCreated", Fragment.class, Bundle.class),
+	VIEW_STATE_RESTORED("onFragmentViewStateRestored", Fragment.class, Bundle.class),
+	START("onFragmentStart", Fragment.class),
+	RESUME("onFragmentResume", Fragment.class),
+	PAUSE("onFragmentPause", Fragment.class),
+	SAVE_INSTANCE_STATE("onFragmentSaveInstanceState", Fragment.class, Bundle.class),
+	STOP("onFragmentStop", Fragment.class),
+	DESTROY_VIEW("onFragmentDestroyView", Fragment.class),
+	DESTROY("onFragmentDestroy", Fragment.class),
+	DETACH("onFragmentDetach", Fragment.class);
+
+	/**
+	 * Mask containing all events.
+	 */
+	public static final int ALL = (1 << values().length) - 1;
+
+	private final String methodName;
+
+	private final Class<?>[] parameterTypes;
+
+	FragmentLifecycleEvent(String methodName, Class<?>... parameterTypes) {
+		this.methodName = methodName;
+		this.parameterTypes = parameterTypes;
+	}
+
+	/**
+	 * The bit of this event in an event mask.
+	 */
+	public int mask() {
+		return 1 << ordinal();
+	}
+
+	/**
+	 * @return true if the event is contained in the given mask.
+	 */
+	public boolean isIn(int eventMask) {
+		return (eventMask & mask()) != 0;
+	}
+
+	/**
+	 * Builds the mask containing the given events.
+	 */
+	public static int maskOf(FragmentLifecycleEvent... events) {
+		int mask = 0;
+		for (FragmentLifecycleEvent event : events) {
+			mask |= event.mask();
+		}
+		return mask;
+	}
+
+	/**
+	 * Name of the callback method in {@link FragmentLifecycleCallbacks}.
+	 */
+	String getMethodName() {
+		return methodName;
+	}
+
+	/**
+	 * Parameter types of the callback method in {@link FragmentLifecycleCallbacks}.
+	 */
+	Class<?>[] getParameterTypes() {
+		return parameterTypes;
+	}
+}
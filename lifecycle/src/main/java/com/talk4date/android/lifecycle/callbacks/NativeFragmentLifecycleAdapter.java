@@ -0,0 +1,177 @@
+package com.talk4date.android.lifecycle.callbacks;
+
+import android.app.Activity;
+import android.app.Application;
+import android.content.Context;
+import android.os.Bundle;
+import android.support.v4.app.Fragment;
+import android.support.v4.app.FragmentActivity;
+import android.support.v4.app.FragmentManager;
+import android.view.View;
+
+import com.talk4date.android.lifecycle.ui.BaseLifecycleDispatchingFragment;
+
+/**
+ * Drives the {@link FragmentLifecycleDispatcher} from the fragment lifecycle callbacks of the support library,
+ * so fragments don't need to extend {@link BaseLifecycleDispatchingFragment}.
+ *
+ * The adapter is registered recursively on the support fragment manager of every {@link FragmentActivity},
+ * which includes all child fragment managers. Fragments extending {@link BaseLifecycleDispatchingFragment}
+ * are skipped because they already dispatch their events themselves.
+ *
+ * Differences to {@link BaseLifecycleDispatchingFragment}:
+ * The support library has no callback for onViewStateRestored, so
+ * {@link FragmentLifecycleCallbacks#onFragmentViewStateRestored(Fragment, Bundle)} is never called.
+ * All events are dispatched after the fragment method returned, e.g. the
+ * {@link com.talk4date.android.lifecycle.FragmentLifecycle} of a fragment is not available in its onCreate,
+ * only from onCreateView on.
+ */
+public class NativeFragmentLifecycleAdapter extends FragmentManager.FragmentLifecycleCallbacks {
+
+	private static NativeFragmentLifecycleAdapter instance;
+
+	private final FragmentLifecycleDispatcher dispatcher = FragmentLifecycleDispatcher.get();
+
+	private NativeFragmentLifecycleAdapter() {}
+
+	/**
+	 * Registers the adapter for all fragment activities of the application.
+	 * Must be called once in {@link Application#onCreate()} before any activity is created.
+	 */
+	public static synchronized void install(Application application) {
+		if (instance != null) {
+			throw new IllegalStateException("NativeFragmentLifecycleAdapter is already installed");
+		}
+		instance = new NativeFragmentLifecycleAdapter();
+		application.registerActivityLifecycleCallbacks(new ActivityCallbacks(instance));
+	}
+
+	/**
+	 * @return false for fragments that dispatch their events themselves.
+	 */
+	private static boolean shouldDispatch(Fragment fragment) {
+		return !(fragment instanceof BaseLifecycleDispatchingFragment);
+	}
+
+	@Override
+	public void onFragmentAttached(FragmentManager fm, Fragment f, Context context) {
+		if (shouldDispatch(f)) {
+			dispatcher.onFragmentAttach(f, f.getActivity());
+		}
+	}
+
+	@Override
+	public void onFragmentCreated(FragmentManager fm, Fragment f, Bundle savedInstanceState) {
+		if (shouldDispatch(f)) {
+			dispatcher.onFragmentCreate(f, savedInstanceState);
+		}
+	}
+
+	@Override
+	public void onFragmentViewCreated(FragmentManager fm, Fragment f, View v, Bundle savedInstanceState) {
+		if (shouldDispatch(f)) {
+			dispatcher.onFragmentViewCreated(f, v, savedInstanceState);
+		}
+	}
+
+	@Override
+	public void onFragmentActivityCreated(FragmentManager fm, Fragment f, Bundle savedInstanceState) {
+		if (shouldDispatch(f)) {
+			dispatcher.onFragmentActivityCreated(f, savedInstanceState);
+		}
+	}
+
+	@Override
+	public void onFragmentStarted(FragmentManager fm, Fragment f) {
+		if (shouldDispatch(f)) {
+			dispatcher.onFragmentStart(f);
+		}
+	}
+
+	@Override
+	public void onFragmentResumed(FragmentManager fm, Fragment f) {
+		if (shouldDispatch(f)) {
+			dispatcher.onFragmentResume(f);
+		}
+	}
+
+	@Override
+	public void onFragmentPaused(FragmentManager fm, Fragment f) {
+		if (shouldDispatch(f)) {
+			dispatcher.onFragmentPause(f);
+		}
+	}
+
+	@Override
+	public void onFragmentSaveInstanceState(FragmentManager fm, Fragment f, Bundle outState) {
+		if (shouldDispatch(f)) {
+			dispatcher.onFragmentSaveInstanceState(f, outState);
+		}
+	}
+
+	@Override
+	public void onFragmentStopped(FragmentManager fm, Fragment f) {
+		if (shouldDispatch(f)) {
+			dispatcher.onFragmentStop(f);
+		}
+	}
+
+	@Override
+	public void onFragmentViewDestroyed(FragmentManager fm, Fragment f) {
+		if (shouldDispatch(f)) {
+			dispatcher.onFragmentDestroyView(f);
+		}
+	}
+
+	@Override
+	public void onFragmentDestroyed(FragmentManager fm, Fragment f) {
+		if (shouldDispatch(f)) {
+			dispatcher.onFragmentDestroy(f);
+		}
+	}
+
+	@Override
+	public void onFragmentDetached(FragmentManager fm, Fragment f) {
+		if (shouldDispatch(f)) {
+			dispatcher.onFragmentDetach(f);
+		}
+	}
+
+	/**
+	 * Registers the adapter on every created fragment activity.
+	 * Activity callbacks are called from Activity.onCreate, before the fragment activity creates its fragments.
+	 */
+	private static class ActivityCallbacks implements Application.ActivityLifecycleCallbacks {
+
+		private final NativeFragmentLifecycleAdapter adapter;
+
+		ActivityCallbacks(NativeFragmentLifecycleAdapter adapter) {
+			this.adapter = adapter;
+		}
+
+		@Override
+		public void onActivityCreated(Activity activity, Bundle savedInstanceState) {
+			if (activity instanceof FragmentActivity) {
+				((FragmentActivity) activity).getSupportFragmentManager().registerFragmentLifecycleCallbacks(adapter, true);
+			}
+		}
+
+		@Override
+		public void onActivityStarted(Activity activity) {}
+
+		@Override
+		public void onActivityResumed(Activity activity) {}
+
+		@Override
+		public void onActivityPaused(Activity activity) {}
+
+		@Override
+		public void onActivityStopped(Activity activity) {}
+
+		@Override
+		public void onActivitySaveInstanceState(Activity activity, Bundle outState) {}
+
+		@Override
+		public void onActivityDestroyed(Activity activity) {}
+	}
+}
@@ -8,15 +8,31 @@ import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
 
+import com.talk4date.android.lifecycle.FragmentLifecycleHolder;
 import com.talk4date.android.lifecycle.callbacks.FragmentLifecycleDispatcher;
 
 /**
  * Base Fragment that dispatches all events to the {@link com.talk4date.android.lifecycle.callbacks.FragmentLifecycleDispatcher}.
  */
-public class BaseLifecycleDispatchingFragment extends Fragment {
+public class BaseLifecycleDispatchingFragment extends Fragment implements FragmentLifecycleHolder {
 
 	private FragmentLifecycleDispatcher dispatcher = FragmentLifecycleDispatcher.get();
 
+	/**
+	 * State managed by {@link com.talk4date.android.lifecycle.FragmentLifecycle}.
+	 */
+	private Object fragmentLifecycleState;
+
+	@Override
+	public final Object getFragmentLifecycleState() {
+		return fragmentLifecycleState;
+	}
+
+	@Override
+	public final void setFragmentLifecycleState(Object state) {
+		this.fragmentLifecycleState = state;
+	}
+
 	@Override
 	public void onAttach(Activity activity) {
 		super.onAttach(activity);
@@ -2,7 +2,9 @@ package com.talk4date.android.lifecycle.sample;
 
 import android.app.Application;
 
+import com.talk4date.android.lifecycle.ActivityLifecycle;
 import com.talk4date.android.lifecycle.callbacks.FragmentLifecycleDispatcher;
+import com.talk4date.android.lifecycle.callbacks.NativeFragmentLifecycleAdapter;
 import com.talk4date.android.lifecycle.FragmentLifecycle;
 import com.talk4date.android.lifecycle.util.FragmentLifecycleLoggingCallbacks;
 
@@ -14,8 +16,11 @@ public class SampleApplication extends Application {
 	@Override
 	public void onCreate() {
 		super.onCreate();
+		ActivityLifecycle.install(this);
 		FragmentLifecycleDispatcher fragmentDispatcher = FragmentLifecycleDispatcher.get();
 		fragmentDispatcher.addFragmentLifecycleCallbacks(new FragmentLifecycleLoggingCallbacks());
 		fragmentDispatcher.addFragmentLifecycleCallbacks(FragmentLifecycle.getCallbacks());
+		// dispatch events of fragments not extending BaseLifecycleDispatchingFragment too
+		NativeFragmentLifecycleAdapter.install(this);
 	}
 }
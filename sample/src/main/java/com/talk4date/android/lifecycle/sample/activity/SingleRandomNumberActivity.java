@@ -8,7 +8,7 @@ import android.widget.TextView;
 
 import com.talk4date.android.lifecycle.ActivityLifecycle;
 import com.talk4date.android.lifecycle.EventListener;
-import com.talk4date.android.lifecycle.EventReceiver;
+import com.talk4date.android.lifecycle.InFlightRequests;
 import com.talk4date.android.lifecycle.sample.R;
 import com.talk4date.android.lifecycle.sample.service.RandomNumberService;
 import com.talk4date.android.lifecycle.sample.utils.MessageDialogFragment;
@@ -82,29 +82,36 @@ public class SingleRandomNumberActivity extends FragmentActivity {
 		this.textView = (TextView) findViewById(R.id.text);
 		this.button = (Button) findViewById(R.id.button);
 
-		// Register a listener with the lifecycle and get back the EventReceiver for it.
-		// All events will only be executed when the activity is resumed.
-		final EventReceiver<Integer> randomNumberListener = lifecycle
-			.registerListener("randomNumber", true, new EventListener<Integer>() {
-				@Override
-				public void onEvent(Integer number) {
-					// Since the ActivityLifecycle manages the listener
-					// we can do all view related tasks without taking care.
-					log.debug("listener of activity {} executing", id);
-
-					lastResult = number;
-					bindView();
-
-					// We can even create a fragment transaction without further handling.
-					// The lifecycle makes sure that this will only be executed while resumed.
-					new MessageDialogFragment().withMessage(String.valueOf(number)).show(getSupportFragmentManager(), "randomDialog");
-				}
-			});
+		// The listener for our requests, all events will only be executed when the activity is resumed.
+		// Requests are tracked by the session lifecycle, which keeps them across configuration changes
+		// and ends them once the number was delivered.
+		final EventListener<Integer> randomNumberListener = new EventListener<Integer>() {
+			@Override
+			public void onEvent(Integer number) {
+				// Since the ActivityLifecycle manages the listener
+				// we can do all view related tasks without taking care.
+				log.debug("listener of activity {} executing", id);
+
+				lastResult = number;
+				bindView();
+
+				// We can even create a fragment transaction without further handling.
+				// The lifecycle makes sure that this will only be executed while resumed.
+				new MessageDialogFragment().withMessage(String.valueOf(number)).show(getSupportFragmentManager(), "randomDialog");
+			}
+		};
+		final InFlightRequests requests = lifecycle.getInFlightRequests();
+
+		// Attaches our listener to a request still pending from a previous instance.
+		final boolean pending = requests.attach("randomNumber", randomNumberListener);
 
 		button.setOnClickListener(new View.OnClickListener() {
 			@Override
 			public void onClick(View v) {
-				randomNumberService.getOneRandomNumber(5, randomNumberListener);
+				// Clicks are ignored while a number is requested, the pending request delivers it.
+				if (!requests.isPending("randomNumber")) {
+					randomNumberService.getOneRandomNumber(5, requests.start("randomNumber", randomNumberListener));
+				}
 			}
 		});
 
@@ -114,8 +121,8 @@ public class SingleRandomNumberActivity extends FragmentActivity {
 
 		// We only kick off to get the first random number when the lifecycle
 		// is new or restored  and we don't have a result yet.
-		if (lifecycle.isNewOrRestored() && lastResult == null) {
-			randomNumberService.getOneRandomNumber(5, randomNumberListener);
+		if (!pending && lifecycle.isNewOrRestored() && lastResult == null) {
+			randomNumberService.getOneRandomNumber(5, requests.start("randomNumber", randomNumberListener));
 		}
 		bindView();
 	}
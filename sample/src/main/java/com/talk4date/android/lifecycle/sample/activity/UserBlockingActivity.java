@@ -9,6 +9,7 @@ import android.widget.Button;
 import com.talk4date.android.lifecycle.ActivityLifecycle;
 import com.talk4date.android.lifecycle.EventListener;
 import com.talk4date.android.lifecycle.EventReceiver;
+import com.talk4date.android.lifecycle.InFlightRequests;
 import com.talk4date.android.lifecycle.sample.R;
 import com.talk4date.android.lifecycle.sample.service.SendDataService;
 import com.talk4date.android.lifecycle.sample.utils.MessageDialogFragment;
@@ -34,23 +35,31 @@ public class UserBlockingActivity extends FragmentActivity {
 		this.button = (Button)findViewById(R.id.button);
 		this.dialog = (MessageDialogFragment) getSupportFragmentManager().findFragmentByTag(TAG_DIALOG);
 
-		final EventReceiver<Void> sendDataListener = lifecycle
-				.registerListener("sendData", true, new EventListener<Void>() {
-					@Override
-					public void onEvent(Void event) {
-						// Dialog can't be null here
-						dialog.dismiss();
-					}
-				});
+		final EventListener<Void> sendDataListener = new EventListener<Void>() {
+			@Override
+			public void onEvent(Void event) {
+				// Dialog can't be null here
+				dialog.dismiss();
+			}
+		};
+		// Attaches our listener to a request still pending from a previous instance.
+		final InFlightRequests requests = lifecycle.getInFlightRequests();
+		requests.attach("sendData", sendDataListener);
 
 		button.setOnClickListener(new View.OnClickListener() {
 			@Override
 			public void onClick(View v) {
+				// Only one request at a time, its response dismisses the dialog.
+				if (requests.isPending("sendData")) {
+					return;
+				}
 				dialog = new MessageDialogFragment()
 						.withMessage("Sending data... please wait.");
 				dialog.setCancelable(false);
 				dialog.show(getSupportFragmentManager(), TAG_DIALOG);
-				sendDataService.sendDataToServer("Test", sendDataListener);
+				// The request ends once the response was delivered.
+				EventReceiver<Void> sendDataReceiver = requests.start("sendData", sendDataListener);
+				sendDataService.sendDataToServer("Test", sendDataReceiver);
 			}
 		});
 
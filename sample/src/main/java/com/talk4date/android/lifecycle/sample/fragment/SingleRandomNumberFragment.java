@@ -48,7 +48,16 @@ public class SingleRandomNumberFragment extends BaseLifecycleDispatchingFragment
 	 */
 	private Integer lastResult;
 
-	private EventReceiver<Integer> randomNumberReceiver;
+	private FragmentLifecycle sessionLifecycle;
+
+	private EventListener<Integer> randomNumberListener = new EventListener<Integer>() {
+		@Override
+		public void onEvent(Integer number) {
+			lastResult = number;
+			bindView();
+			new MessageDialogFragment().withMessage(String.valueOf(number)).show(getFragmentManager(), "randomDialog");
+		}
+	};
 
 	@Override
 	public void onCreate(Bundle savedInstanceState) {
@@ -58,19 +67,13 @@ public class SingleRandomNumberFragment extends BaseLifecycleDispatchingFragment
 			lastResult = savedInstanceState.getInt(INSTANCE_STATE_LAST_RESULT);
 		}
 
-		FragmentLifecycle lifecycle = FragmentLifecycle.sessionLifecycle(this);
-
-		randomNumberReceiver = lifecycle.registerListener("randomNumber", true, new EventListener<Integer>() {
-			@Override
-			public void onEvent(Integer number) {
-				lastResult = number;
-				bindView();
-				new MessageDialogFragment().withMessage(String.valueOf(number)).show(getFragmentManager(), "randomDialog");
-			}
-		});
+		sessionLifecycle = FragmentLifecycle.sessionLifecycle(this);
 
-		if (lifecycle.isNewOrRestored() && lastResult == null) {
-			RandomNumberService.getInstance().getOneRandomNumber(5, randomNumberReceiver);
+		// Reconnect to a request issued by a previous instance instead of requesting a new number.
+		// The session lifecycle keeps the result until it was dispatched to a resumed instance.
+		boolean pending = sessionLifecycle.getInFlightRequests().attach("randomNumber", randomNumberListener);
+		if (!pending && sessionLifecycle.isNewOrRestored() && lastResult == null) {
+			requestRandomNumber();
 		}
 	}
 
@@ -84,7 +87,7 @@ public class SingleRandomNumberFragment extends BaseLifecycleDispatchingFragment
 		this.button.setOnClickListener(new View.OnClickListener() {
 			@Override
 			public void onClick(View v) {
-				randomNumberService.getOneRandomNumber(5, randomNumberReceiver);
+				requestRandomNumber();
 			}
 		});
 
@@ -92,6 +95,18 @@ public class SingleRandomNumberFragment extends BaseLifecycleDispatchingFragment
 		return view;
 	}
 
+	/**
+	 * Requests a random number, tracked by the session lifecycle so a recreated instance can reconnect to it.
+	 * While a request is pending no new one is issued.
+	 */
+	private void requestRandomNumber() {
+		if (sessionLifecycle.getInFlightRequests().isPending("randomNumber")) {
+			return;
+		}
+		EventReceiver<Integer> request = sessionLifecycle.getInFlightRequests().start("randomNumber", randomNumberListener);
+		randomNumberService.getOneRandomNumber(5, request);
+	}
+
 	/**
 	 * Binds the view with the lastResult.
 	 */
@@ -11,6 +11,7 @@ import android.widget.Button;
 import com.talk4date.android.lifecycle.EventListener;
 import com.talk4date.android.lifecycle.EventReceiver;
 import com.talk4date.android.lifecycle.FragmentLifecycle;
+import com.talk4date.android.lifecycle.InFlightRequests;
 import com.talk4date.android.lifecycle.sample.R;
 import com.talk4date.android.lifecycle.sample.activity.UserBlockingActivity;
 import com.talk4date.android.lifecycle.sample.service.SendDataService;
@@ -29,7 +30,12 @@ public class UserBlockingFragment extends BaseLifecycleDispatchingFragment {
 	private static final Logger log = LoggerFactory.getLogger(UserBlockingFragment.class);
 
 	private MessageDialogFragment dialog;
-	private EventReceiver<Void> sendDataReceiver;
+	private EventListener<Void> sendDataListener = new EventListener<Void>() {
+		@Override
+		public void onEvent(Void event) {
+			dialog.dismiss();
+		}
+	};
 	private FragmentLifecycle sessionLifecycle;
 
 	@Override
@@ -39,12 +45,8 @@ public class UserBlockingFragment extends BaseLifecycleDispatchingFragment {
 
 		dialog = (MessageDialogFragment) getFragmentManager().findFragmentByTag(TAG_DIALOG);
 
-		sendDataReceiver = sessionLifecycle.registerListener("sendData", true, new EventListener<Void>() {
-			@Override
-			public void onEvent(Void event) {
-				dialog.dismiss();
-			}
-		});
+		// Attaches our listener to a request still pending from a previous instance.
+		sessionLifecycle.getInFlightRequests().attach("sendData", sendDataListener);
 	}
 
 	@Nullable
@@ -56,10 +58,16 @@ public class UserBlockingFragment extends BaseLifecycleDispatchingFragment {
 		button.setOnClickListener(new View.OnClickListener() {
 			@Override
 			public void onClick(View v) {
+				// Only one request at a time, its response dismisses the dialog.
+				InFlightRequests requests = sessionLifecycle.getInFlightRequests();
+				if (requests.isPending("sendData")) {
+					return;
+				}
 				dialog = new MessageDialogFragment().withMessage("Sending data... please wait.");
 				dialog.setCancelable(false);
 				dialog.show(getFragmentManager(), TAG_DIALOG);
 
+				EventReceiver<Void> sendDataReceiver = requests.start("sendData", sendDataListener);
 				SendDataService.getInstance().sendDataToServer("Hello World", sendDataReceiver);
 			}
 		});
@@ -1,10 +1,12 @@
 package com.talk4date.android.lifecycle.sample.service;
 
-import android.os.Handler;
-import android.os.Looper;
 import android.support.annotation.Nullable;
 
+import com.talk4date.android.lifecycle.CancellationToken;
 import com.talk4date.android.lifecycle.EventReceiver;
+import com.talk4date.android.lifecycle.LifecycleTask;
+import com.talk4date.android.lifecycle.LifecycleTaskExecutor;
+import com.talk4date.android.lifecycle.SingleFlight;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -29,12 +31,18 @@ public class CachingCalculatorService {
 	}
 
 	/**
-	 * Handler on the main loop.
+	 * Executor running the calculations in the background.
 	 */
-	private Handler handler = new Handler(Looper.getMainLooper());
+	private LifecycleTaskExecutor executor = LifecycleTaskExecutor.get();
 
 	/**
-	 * Nested map with cached addition results (a -> b -> result)
+	 * Additions in flight by their numbers, so every addition is only calculated once at a time.
+	 */
+	private SingleFlight<String, Integer> additions = new SingleFlight<>();
+
+	/**
+	 * Nested map with cached addition results (a -> b -> result).
+	 * Guarded by this, because calculations write it from background threads.
 	 */
 	private Map<Integer, Map<Integer, Integer>> addCache = new HashMap<>();
 
@@ -45,7 +53,7 @@ public class CachingCalculatorService {
 	 * @param b The second number.
 	 * @param result The result.
 	 */
-	private void cacheAddResult(int a, int b, int result) {
+	private synchronized void cacheAddResult(int a, int b, int result) {
 		Map<Integer, Integer> bCache = addCache.get(a);
 
 		if (bCache == null) {
@@ -62,7 +70,7 @@ public class CachingCalculatorService {
 	 * @param b the second number.
 	 * @return The cached result or null if the result isn't cached yet.
 	 */
-	private @Nullable Integer getCachedAddResult(int a, int b) {
+	private synchronized @Nullable Integer getCachedAddResult(int a, int b) {
 		Map<Integer, Integer> bCache = addCache.get(a);
 		if (bCache == null) {
 			return null;
@@ -74,25 +82,39 @@ public class CachingCalculatorService {
 	/**
 	 * Adds number the supplied numbers and returns the result to the receiver when finished.
 	 * Must be called on the main thread.
-	 * It will take 5 minutes until the result is returned.
+	 * It will take 5 seconds until the result is returned.
+	 *
+	 * The calculation runs in the background and is shared by all receivers asking for the same numbers
+	 * while it is running. It is cancelled when all of them are destroyed before it finished.
 	 *
 	 * @param a The first number.
 	 * @param b The second number.
 	 * @param resultReceiver The receiver which gets the result when the calculation is finished.
 	 */
-	public void add(final int a, final int b, final EventReceiver<Integer> resultReceiver) {
+	public void add(final int a, final int b, EventReceiver<Integer> resultReceiver) {
 		Integer cachedResult = getCachedAddResult(a, b);
 		if (cachedResult != null) {
 			resultReceiver.postEvent(cachedResult);
 		} else {
-			handler.postDelayed(new Runnable() {
+			additions.request(a + "+" + b, resultReceiver, new SingleFlight.Call<Integer>() {
 				@Override
-				public void run() {
-					int result = a + b;
-					cacheAddResult(a, b, result);
-					resultReceiver.postEvent(result);
+				public void start(EventReceiver<Integer> additionReceiver) {
+					executor.execute(new LifecycleTask<Integer>() {
+						@Override
+						public Integer execute(CancellationToken token) throws InterruptedException {
+							// Simulate a long calculation, which stops as soon as nobody is interested in the result.
+							for (int i = 0; i < 50 && !token.isCancelled(); i++) {
+								Thread.sleep(100);
+							}
+							token.throwIfCancelled();
+
+							int result = a + b;
+							cacheAddResult(a, b, result);
+							return result;
+						}
+					}, additionReceiver);
 				}
-			}, 5000);
+			});
 		}
 	}
-}
\ No newline at end of file
+}
@@ -1,5 +1,6 @@
 package com.talk4date.android.lifecycle.sample.service;
 
+import com.talk4date.android.lifecycle.CancellationToken;
 import com.talk4date.android.lifecycle.EventReceiver;
 import android.os.Handler;
 import android.os.Looper;
@@ -42,6 +43,8 @@ public class RandomNumberService {
 
 	/**
 	 * Get a new random number after the given delay in seconds.
+	 * The request is cancelled when the receiver is destroyed before the number is ready.
+	 *
 	 * @param delayInSeconds The delay after which to get the random number
 	 * @param receiver The listener to invoke with the new random number
 	 */
@@ -49,13 +52,24 @@ public class RandomNumberService {
 		final int id = newUniqueId();
 		log.debug("starting random number with id {}", id);
 
-		handler.postDelayed(new Runnable() {
+		final CancellationToken token = CancellationToken.of(receiver);
+		final Runnable task = new Runnable() {
 			@Override
 			public void run() {
 				log.debug("finished random number with id {}", id);
+				token.detach();
 				receiver.postEvent(random.nextInt());
 			}
-		}, delayInSeconds * 1000);
+		};
+		handler.postDelayed(task, delayInSeconds * 1000);
+
+		token.addOnCancelListener(new CancellationToken.OnCancelListener() {
+			@Override
+			public void onCancel() {
+				log.debug("cancelled random number with id {}", id);
+				handler.removeCallbacks(task);
+			}
+		});
 	}
 
 	/**
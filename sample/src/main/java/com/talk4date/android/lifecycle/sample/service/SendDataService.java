@@ -3,6 +3,7 @@ package com.talk4date.android.lifecycle.sample.service;
 import android.os.Handler;
 import android.os.Looper;
 
+import com.talk4date.android.lifecycle.CancellationToken;
 import com.talk4date.android.lifecycle.EventReceiver;
 
 import org.slf4j.Logger;
@@ -32,18 +33,30 @@ public class SendDataService {
 	/**
 	 * Simulates sending some data to the server.
 	 * Triggers the event receiver once the response from the server came back.
+	 * The request is aborted when the receiver is destroyed before the response came back.
 	 *
 	 * @param data Some data to send to the server. Just used for debug logging in this example.
 	 * @param receiver The receiver to trigger with the response.
 	 */
-	public void sendDataToServer(String data, final EventReceiver<Void> receiver) {
+	public void sendDataToServer(final String data, final EventReceiver<Void> receiver) {
 		// Simulate network latency.
 		log.debug("Sending data to server {}", data);
-		handler.postDelayed(new Runnable() {
+		final CancellationToken token = CancellationToken.of(receiver);
+		final Runnable response = new Runnable() {
 			@Override
 			public void run() {
+				token.detach();
 				receiver.postEvent(null);
 			}
-		}, 5 * 1000);
+		};
+		handler.postDelayed(response, 5 * 1000);
+
+		token.addOnCancelListener(new CancellationToken.OnCancelListener() {
+			@Override
+			public void onCancel() {
+				log.debug("Aborted sending data to server {}", data);
+				handler.removeCallbacks(response);
+			}
+		});
 	}
 }